@@ -0,0 +1,16 @@
+package study.datajpa.projection;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 프로젝션 인터페이스에 붙이면 같은 패키지에 {@code <인터페이스이름>Row} 구현 클래스를 만든다.
+ * 게터 순서대로 값을 받는 생성자가 있어서 JPQL 생성자 표현식(select new ...Row(...))에 바로 쓸 수 있고,
+ * 스프링 데이터가 행마다 프록시와 Map 을 만들지 않는다.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateProjection {
+}
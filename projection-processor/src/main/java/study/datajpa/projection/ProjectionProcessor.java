@@ -0,0 +1,188 @@
+package study.datajpa.projection;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+//@GenerateProjection 이 붙은 인터페이스마다 게터를 final 필드로 들고 있는 구현 클래스를 만든다.
+@SupportedAnnotationTypes("study.datajpa.projection.GenerateProjection")
+public class ProjectionProcessor extends AbstractProcessor {
+
+    private static final String OPEN_PROJECTION = "org.springframework.beans.factory.annotation.Value";
+
+    //RELEASE_17 로 고정하면 더 새 JDK 로 빌드할 때 javac 가 경고를 낸다
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateProjection.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@GenerateProjection 은 인터페이스에만 붙일 수 있습니다.");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            Map<String, ExecutableElement> properties = new LinkedHashMap<>();
+            if (collectProperties(type, properties)) {
+                write(type, properties);
+            }
+        }
+        return true;
+    }
+
+    //선언 순서대로, 상위 인터페이스의 게터까지. 생성자 파라미터 순서가 이 순서다.
+    private boolean collectProperties(TypeElement type, Map<String, ExecutableElement> properties) {
+        boolean valid = true;
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.STATIC) || method.getModifiers().contains(Modifier.DEFAULT)) {
+                continue;
+            }
+            String property = propertyName(method);
+            if (property == null) {
+                error(method, "게터(getX/isX, 파라미터 없음)만 있을 수 있습니다.");
+                valid = false;
+                continue;
+            }
+            if (isOpenProjection(method)) {
+                error(method, "@Value 오픈 프로젝션은 엔티티 전체가 필요해서 구현 클래스를 만들 수 없습니다.");
+                valid = false;
+                continue;
+            }
+            properties.putIfAbsent(property, method);
+        }
+        for (TypeMirror parent : type.getInterfaces()) {
+            TypeElement parentType = (TypeElement) ((DeclaredType) parent).asElement();
+            valid &= collectProperties(parentType, properties);
+        }
+        return valid;
+    }
+
+    private String propertyName(ExecutableElement method) {
+        if (!method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID) {
+            return null;
+        }
+        String name = method.getSimpleName().toString();
+        if (name.startsWith("get") && name.length() > 3) {
+            return decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2 && method.getReturnType().getKind() == TypeKind.BOOLEAN) {
+            return decapitalize(name.substring(2));
+        }
+        return null;
+    }
+
+    private boolean isOpenProjection(ExecutableElement method) {
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().toString().equals(OPEN_PROJECTION)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(TypeElement type, Map<String, ExecutableElement> properties) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String interfaceName = type.getSimpleName().toString();
+        String className = interfaceName + "Row";
+
+        List<String> fields = new ArrayList<>();
+        StringJoiner parameters = new StringJoiner(", ");
+        for (Map.Entry<String, ExecutableElement> property : properties.entrySet()) {
+            String declaration = property.getValue().getReturnType() + " " + property.getKey();
+            fields.add(declaration);
+            parameters.add(declaration);
+        }
+
+        try (PrintWriter out = new PrintWriter(
+                processingEnv.getFiler().createSourceFile(packageName + "." + className, type).openWriter())) {
+            out.println("package " + packageName + ";");
+            out.println();
+            out.println("@javax.annotation.processing.Generated(\"" + ProjectionProcessor.class.getName() + "\")");
+            out.println("public final class " + className + " implements " + interfaceName + " {");
+            out.println();
+            for (String field : fields) {
+                out.println("    private final " + field + ";");
+            }
+            out.println();
+            out.println("    public " + className + "(" + parameters + ") {");
+            for (String property : properties.keySet()) {
+                out.println("        this." + property + " = " + property + ";");
+            }
+            out.println("    }");
+            for (Map.Entry<String, ExecutableElement> property : properties.entrySet()) {
+                ExecutableElement method = property.getValue();
+                out.println();
+                out.println("    @Override");
+                out.println("    public " + method.getReturnType() + " " + method.getSimpleName() + "() {");
+                out.println("        return " + property.getKey() + ";");
+                out.println("    }");
+            }
+            writeObjectMethods(out, className, properties.keySet());
+            out.println("}");
+        } catch (IOException e) {
+            error(type, "프로젝션 구현 클래스를 만들지 못했습니다: " + e.getMessage());
+        }
+    }
+
+    private void writeObjectMethods(PrintWriter out, String className, Set<String> properties) {
+        StringJoiner equals = new StringJoiner("\n                && ");
+        StringJoiner hash = new StringJoiner(", ");
+        StringJoiner string = new StringJoiner(" + \", ");
+        for (String property : properties) {
+            equals.add("java.util.Objects.equals(" + property + ", that." + property + ")");
+            hash.add(property);
+            string.add(property + "=\" + " + property);
+        }
+
+        out.println();
+        out.println("    @Override");
+        out.println("    public boolean equals(Object o) {");
+        out.println("        if (this == o) return true;");
+        out.println("        if (!(o instanceof " + className + " that)) return false;");
+        out.println("        return " + (properties.isEmpty() ? "true" : equals.toString()) + ";");
+        out.println("    }");
+        out.println();
+        out.println("    @Override");
+        out.println("    public int hashCode() {");
+        out.println("        return java.util.Objects.hash(" + hash + ");");
+        out.println("    }");
+        out.println();
+        out.println("    @Override");
+        out.println("    public String toString() {");
+        out.println("        return \"" + className + "(" + (properties.isEmpty() ? "" : string + " + \"") + ")\";");
+        out.println("    }");
+    }
+
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name; //URL -> URL (java.beans.Introspector 와 같은 규칙)
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
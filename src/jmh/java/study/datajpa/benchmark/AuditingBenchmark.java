@@ -0,0 +1,131 @@
+package study.datajpa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.config.AuditingBatch;
+import study.datajpa.config.CachedClock;
+import study.datajpa.entity.Item;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+//감사 필드 비용: 시각 읽기, insert 한 건당 오버헤드(작성자+시각 / 시각만 / epoch long), 행 크기
+//insert 는 ROWS 건을 flush 하고 롤백해서 테이블이 커지지 않게 한다. ./gradlew jmh -PjmhIncludes=AuditingBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditingBenchmark {
+
+    private static final int ROWS = 100;
+    private static final int SIZE_ROWS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager em;
+    private CachedClock cachedClock;
+    private TransactionTemplate readWrite;
+    private long itemSeq;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        em = context.getBean(EntityManager.class);
+        cachedClock = context.getBean(CachedClock.class);
+        readWrite = BenchmarkContext.transaction(context, false);
+        printRowSizes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // --- 시각 읽기 : 매번 LocalDateTime.now() vs CachedClock
+
+    @Benchmark
+    public LocalDateTime clock_localDateTimeNow() {
+        return LocalDateTime.now();
+    }
+
+    @Benchmark
+    public LocalDateTime clock_cached() {
+        return cachedClock.localDateTime();
+    }
+
+    // --- insert ROWS 건 : BaseEntity(Member) vs BaseTimeEntity(Team) vs BaseEpochTimeEntity(Item)
+
+    @Benchmark
+    public int insert_baseEntity() {
+        return insert(i -> em.persist(new Member("audit" + i, i)));
+    }
+
+    @Benchmark
+    public int insert_baseEntity_auditingBatch() {
+        try (AuditingBatch batch = AuditingBatch.open(cachedClock, "benchmark")) {
+            return insert(i -> em.persist(new Member("audit" + i, i)));
+        }
+    }
+
+    @Benchmark
+    public int insert_baseTimeEntity() {
+        return insert(i -> em.persist(new Team("audit" + i)));
+    }
+
+    @Benchmark
+    public int insert_baseEpochTimeEntity() {
+        return insert(i -> em.persist(new Item("audit" + itemSeq++)));
+    }
+
+    private int insert(IntConsumer persist) {
+        return readWrite.execute(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                persist.accept(i);
+            }
+            em.flush();
+            em.clear();
+            status.setRollbackOnly();
+            return ROWS;
+        });
+    }
+
+    //같은 수의 행을 넣고 H2 가 테이블에 쓰는 바이트를 행 수로 나눠서 찍는다 (다른 컬럼 차이도 섞여 있으니 감사 컬럼만의 값은 아니다)
+    private void printRowSizes() {
+        readWrite.executeWithoutResult(status -> {
+            for (int i = 0; i < SIZE_ROWS; i++) {
+                em.persist(new Member("size" + i, i));
+                em.persist(new Team("size" + i));
+                em.persist(new Item("size" + i));
+                if (i % 1000 == 999) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+        });
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (String table : List.of("MEMBER", "TEAM", "ITEM")) {
+            Long bytes = jdbcTemplate.queryForObject("select disk_space_used(?)", Long.class, table);
+            Long rows = jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+            System.out.printf("%n%s: %d rows, ~%d bytes/row%n", table, rows, bytes / Math.max(1, rows));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.dto.MemberIngestRow;
+import study.datajpa.service.MemberBulkIngestService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//벤치마크용 애플리케이션 컨텍스트. 외부 H2 서버 대신 인메모리 H2로 띄우고 SQL 로그/p6spy 는 끈다.
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "app.datasource.replica.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "spring.main.banner-mode=off",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "logging.level.org.hibernate.SQL=warn",
+                "decorator.datasource.enabled=false"));
+        all.addAll(List.of(properties));
+
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(all.toArray(String[]::new))
+                .run();
+    }
+
+    //member0 ~ member{n-1}, 나이는 0~99, 팀은 team0 ~ team{teams-1} 로 돌아가면서
+    public static void seed(ConfigurableApplicationContext context, int members, int teams) {
+        List<MemberIngestRow> rows = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            rows.add(new MemberIngestRow("member" + i, i % 100, "team" + (i % teams)));
+        }
+        context.getBean(MemberBulkIngestService.class).ingest(rows);
+    }
+
+    public static TransactionTemplate transaction(ConfigurableApplicationContext context, boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        template.setReadOnly(readOnly);
+        return template;
+    }
+}
@@ -0,0 +1,77 @@
+package study.datajpa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//이름 목록 크기별 in 절 하나(파라미터 패딩, 예전 findByNames) vs findByNames(청크 / 배열 바인딩)
+//회원은 MEMBERS 명이라 목록이 그보다 크면 나머지는 없는 이름이다. ./gradlew jmh -PjmhIncludes=FindByNamesBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindByNamesBenchmark {
+
+    private static final int MEMBERS = 10_000;
+    private static final int TEAMS = 100;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    private int names;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private EntityManager em;
+    private TransactionTemplate readOnly;
+    private List<String> usernames;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        em = context.getBean(EntityManager.class);
+        BenchmarkContext.seed(context, MEMBERS, TEAMS);
+        readOnly = BenchmarkContext.transaction(context, true);
+
+        usernames = new ArrayList<>(names);
+        for (int i = 0; i < names; i++) {
+            usernames.add("member" + i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> singleInClause() {
+        return readOnly.execute(status -> em.createQuery("select m from Member m where m.username in :names", Member.class)
+                .setParameter("names", usernames)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<Member> findByNames() {
+        return readOnly.execute(status -> memberRepository.findByNames(usernames));
+    }
+}
@@ -0,0 +1,76 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Item;
+import study.datajpa.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Item 을 size 개 저장: saveAll(Persistable 이라 새 Item 은 select 없이 바로 persist. 전부 영속성 컨텍스트에 쌓였다가 커밋 때 flush)
+//vs saveAllBatched(청크마다 in 쿼리로 있는 id 확인 + persist/flush 후 detach. 중복 합치기, 있는 id 는 MERGE)
+//매번 새 id 를 쓰고, 반복(iteration)마다 테이블을 비운다. ./gradlew jmh -PjmhIncludes=ItemRepositoryBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRepositoryBenchmark {
+
+    @Param({"10000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private long round;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        itemRepository = context.getBean(ItemRepository.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearItems() {
+        itemRepository.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> saveAll() {
+        return itemRepository.saveAll(items("saveAll-"));
+    }
+
+    @Benchmark
+    public List<Item> saveAllBatched() {
+        return itemRepository.saveAllBatched(items("batched-"));
+    }
+
+    private List<Item> items(String prefix) {
+        String roundPrefix = prefix + round++ + "-";
+        List<Item> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new Item(roundPrefix + i));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,77 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberUpdateService;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//여러 스레드가 적은 수의 회원을 동시에 고칠 때: 비관적 락(행을 잡고 기다림) vs @Version + 재시도
+//hotMembers 가 작을수록 경합이 심하다. ./gradlew jmh -PjmhIncludes=MemberContentionBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class MemberContentionBenchmark {
+
+    @Param({"1", "16"})
+    private int hotMembers;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberUpdateService memberUpdateService;
+    private TransactionTemplate readWrite;
+    private Long[] ids;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("app.retry.optimistic.max-attempts=1000");
+        memberRepository = context.getBean(MemberRepository.class);
+        memberUpdateService = context.getBean(MemberUpdateService.class);
+        readWrite = BenchmarkContext.transaction(context, false);
+
+        ids = new Long[hotMembers];
+        for (int i = 0; i < hotMembers; i++) {
+            ids[i] = memberRepository.save(new Member("hot" + i, 0)).getId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer pessimistic_addAge() {
+        String username = "hot" + ThreadLocalRandom.current().nextInt(hotMembers);
+        return readWrite.execute(status -> {
+            Member member = memberRepository.findLockByUsername(username).get(0);
+            member.setAge(member.getAge() + 1);
+            return member.getAge();
+        });
+    }
+
+    @Benchmark
+    public int optimistic_addAge() {
+        return memberUpdateService.addAge(ids[ThreadLocalRandom.current().nextInt(hotMembers)], 1);
+    }
+}
@@ -0,0 +1,102 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.dto.BulkIngestResult;
+import study.datajpa.dto.MemberIngestRow;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.service.MemberBulkIngestService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//회원 rows 건 적재: MemberBulkIngestService.ingest(persist + flush-size 마다 JDBC 배치) vs memberRepository.save 를 한 건씩 (건마다 트랜잭션)
+//두 쪽 모두 같은 팀(이미 있는 TEAMS 개)에 붙인다. 반복(iteration)마다 회원을 비운다. ./gradlew jmh -PjmhIncludes=MemberIngestBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberIngestBenchmark {
+
+    private static final int TEAMS = 100;
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private MemberBulkIngestService memberBulkIngestService;
+    private MemberRepository memberRepository;
+    private Map<String, Team> teams;
+    private long round;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        memberBulkIngestService = context.getBean(MemberBulkIngestService.class);
+        memberRepository = context.getBean(MemberRepository.class);
+
+        teams = new HashMap<>();
+        List<Team> saved = new ArrayList<>();
+        for (int i = 0; i < TEAMS; i++) {
+            saved.add(new Team("team" + i));
+        }
+        for (Team team : context.getBean(TeamRepository.class).saveAll(saved)) {
+            teams.put(team.getName(), team);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearMembers() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BulkIngestResult ingest() {
+        return memberBulkIngestService.ingest(rows("ingest-"));
+    }
+
+    @Benchmark
+    public int saveEach() {
+        List<MemberIngestRow> input = rows("save-");
+        for (MemberIngestRow row : input) {
+            Member member = new Member(row.getUsername(), row.getAge());
+            member.setTeam(teams.get(row.getTeamName()));
+            memberRepository.save(member);
+        }
+        return input.size();
+    }
+
+    private List<MemberIngestRow> rows(String prefix) {
+        String roundPrefix = prefix + round++ + "-";
+        List<MemberIngestRow> input = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            input.add(new MemberIngestRow(roundPrefix + i, i % 100, "team" + (i % TEAMS)));
+        }
+        return input;
+    }
+}
@@ -0,0 +1,87 @@
+package study.datajpa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.MemberQueries;
+import study.datajpa.repository.MemberJpaRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//컨텍스트를 매번 새로 띄워서 시작 시간과 MemberJpaRepository 첫 호출 지연을 잰다.
+//startupCheck=false 는 이름 있는 쿼리를 시작할 때 파싱하지 않는 경우(= 예전처럼 첫 호출 때 파싱)다.
+//firstCall_adHocJpql 은 예전 코드처럼 em.createQuery(문자열) 로 처음 보는 JPQL 을 부른다. ./gradlew jmh -PjmhIncludes=MemberJpaRepositoryStartupBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(3)
+public class MemberJpaRepositoryStartupBenchmark {
+
+    @Param({"true", "false"})
+    private boolean startupCheck;
+
+    //첫 호출용. 컨텍스트를 띄우고 닫는 건 측정에서 빠진다
+    @State(Scope.Thread)
+    public static class Started {
+
+        private ConfigurableApplicationContext context;
+        private MemberJpaRepository memberJpaRepository;
+        private EntityManager em;
+        private TransactionTemplate readOnly;
+
+        @Setup(Level.Invocation)
+        public void setUp(MemberJpaRepositoryStartupBenchmark benchmark) {
+            context = benchmark.start();
+            memberJpaRepository = context.getBean(MemberJpaRepository.class);
+            em = context.getBean(EntityManager.class);
+            readOnly = BenchmarkContext.transaction(context, true);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public void startup() {
+        start().close();
+    }
+
+    @Benchmark
+    public List<Member> firstCall_findByPage(Started started) {
+        return started.readOnly.execute(status -> started.memberJpaRepository.findByPage(10, 0, 3));
+    }
+
+    @Benchmark
+    public List<Member> firstCall_adHocJpql(Started started) {
+        //플랜 캐시에 시작할 때 올라간 같은 문자열이 있으면 캐시를 타니, 예전 코드처럼 처음 보는 문자열로 만든다
+        return started.readOnly.execute(status -> started.em
+                .createQuery(MemberQueries.FIND_BY_AGE_ORDER_BY_USERNAME_DESC_JPQL + " ", Member.class)
+                .setParameter("age", 10)
+                .setFirstResult(0)
+                .setMaxResults(3)
+                .getResultList());
+    }
+
+    private ConfigurableApplicationContext start() {
+        return BenchmarkContext.start("spring.jpa.properties.hibernate.query.startup_check=" + startupCheck);
+    }
+}
@@ -0,0 +1,196 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberTeamRow;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberProjection;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.UsernameOnly;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberRepositoryBenchmark {
+
+    private static final int MEMBERS = 10_000;
+    private static final int TEAMS = 100;
+    private static final String USERNAME = "member5000";
+    private static final PageRequest PAGE = PageRequest.of(2, 20);
+    private static final PageRequest LARGE_PAGE = PageRequest.of(0, 1000);
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        BenchmarkContext.seed(context, MEMBERS, TEAMS);
+        readOnly = BenchmarkContext.transaction(context, true);
+        readWrite = BenchmarkContext.transaction(context, false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // --- findByUsername : 메서드 이름으로 만든 쿼리 vs @NamedQuery
+
+    @Benchmark
+    public List<Member> findByUsername_derived() {
+        return readOnly.execute(status -> memberRepository.findListByUsername(USERNAME));
+    }
+
+    @Benchmark
+    public List<Member> findByUsername_namedQuery() {
+        return readOnly.execute(status -> memberRepository.findByUsername(USERNAME));
+    }
+
+    // --- Member -> Team : 페치 조인 vs 엔티티 그래프 vs 지연 로딩(N+1)
+
+    @Benchmark
+    public void team_fetchJoin(Blackhole bh) {
+        readOnly.executeWithoutResult(status -> touchTeams(memberRepository.findMemberFetchJoin(), bh));
+    }
+
+    @Benchmark
+    public void team_entityGraph(Blackhole bh) {
+        readOnly.executeWithoutResult(status -> touchTeams(memberRepository.findMemberEntityGraph(), bh));
+    }
+
+    @Benchmark
+    public void team_lazy(Blackhole bh) {
+        readOnly.executeWithoutResult(status -> touchTeams(memberRepository.findMemberCustom(), bh));
+    }
+
+    // --- 페이징 : Page(count 쿼리 포함) vs Slice
+
+    @Benchmark
+    public Page<Member> paging_page() {
+        return readOnly.execute(status -> memberRepository.findByAge(10, PAGE));
+    }
+
+    @Benchmark
+    public Slice<Member> paging_slice() {
+        return readOnly.execute(status -> memberRepository.findSliceByAge(10, PAGE));
+    }
+
+    // --- 벌크 수정 (데이터가 바뀌지 않게 매번 롤백)
+
+    @Benchmark
+    public Integer bulkAgePlus() {
+        return readWrite.execute(status -> {
+            int count = memberRepository.bulkAgePlus(90);
+            status.setRollbackOnly();
+            return count;
+        });
+    }
+
+    // --- 프로젝션 vs 엔티티
+
+    @Benchmark
+    public List<UsernameOnly> projection_byUsername() {
+        return readOnly.execute(status -> memberRepository.findProjectionsByUsername(USERNAME));
+    }
+
+    //같은 인터페이스를 동적 프로젝션으로 받으면 예전처럼 프록시가 만들어진다. projection_byUsername(생성된 UsernameOnlyRow) 과 할당량 비교
+    @Benchmark
+    public List<UsernameOnly> projection_byUsername_proxy() {
+        return readOnly.execute(status -> memberRepository.findProjectionsDtoClassByUsername(USERNAME, UsernameOnly.class));
+    }
+
+    @Benchmark
+    public List<MemberProjection> projection_memberProjection() {
+        return readOnly.execute(status -> memberRepository.findMemberProjectionByUsername(USERNAME));
+    }
+
+    @Benchmark
+    public List<Member> entity_byUsername() {
+        return readOnly.execute(status -> memberRepository.findListByUsername(USERNAME));
+    }
+
+    @Benchmark
+    public List<String> projection_allUsernames() {
+        return readOnly.execute(status -> memberRepository.findUernameList());
+    }
+
+    @Benchmark
+    public List<Member> entity_all() {
+        return readOnly.execute(status -> memberRepository.findMemberCustom());
+    }
+
+    // --- /members 목록 : 엔티티 조회 후 map vs DTO 생성자 표현식
+    // 요청당 할당량은 -prof gc 의 gc.alloc.rate.norm (B/op) 으로 비교한다. ./gradlew jmh -PjmhIncludes='list_'
+
+    @Benchmark
+    public Page<MemberDto> list_entityMap() {
+        return readOnly.execute(status -> memberRepository.findAllWithCachedCount(PAGE).map(MemberDto::new));
+    }
+
+    @Benchmark
+    public Page<MemberDto> list_dtoProjection() {
+        return readOnly.execute(status -> memberRepository.findMemberDto(PAGE));
+    }
+
+    // --- 네이티브 프로젝션 : 인터페이스 프로젝션(행마다 프록시) vs record 로 바로 매핑 vs 스트리밍
+
+    @Benchmark
+    public void nativeProjection_interface(Blackhole bh) {
+        readOnly.executeWithoutResult(status -> {
+            for (MemberProjection row : memberRepository.findByNativeProjection(LARGE_PAGE)) {
+                bh.consume(row.getTeamName());
+            }
+        });
+    }
+
+    @Benchmark
+    public void nativeProjection_record(Blackhole bh) {
+        readOnly.executeWithoutResult(status -> {
+            for (MemberTeamRow row : memberRepository.findMemberTeamRows(LARGE_PAGE)) {
+                bh.consume(row.teamName());
+            }
+        });
+    }
+
+    @Benchmark
+    public void nativeProjection_recordStream(Blackhole bh) {
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<MemberTeamRow> rows = memberRepository.streamMemberTeamRows()) {
+                rows.limit(LARGE_PAGE.getPageSize()).forEach(row -> bh.consume(row.teamName()));
+            }
+        });
+    }
+
+    private void touchTeams(List<Member> members, Blackhole bh) {
+        for (Member member : members) {
+            bh.consume(member.getTeam().getName());
+        }
+    }
+}
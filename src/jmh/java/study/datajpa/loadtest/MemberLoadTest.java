@@ -0,0 +1,92 @@
+package study.datajpa.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+//떠 있는 서버에 동시 요청을 보내서 처리량(req/s)과 지연(p50/p99)을 잰다.
+//플랫폼 스레드 모드와 virtual 프로파일로 각각 서버를 띄워서 같은 인자로 돌려 비교한다.
+public class MemberLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080/members");
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        long durationMillis = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30).toMillis();
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.currentTimeMillis() + durationMillis;
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> futures = new ArrayList<>();
+
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(executor.submit(() -> {
+                LatencyRecorder recorder = new LatencyRecorder();
+                while (System.currentTimeMillis() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    recorder.record(System.nanoTime() - start);
+                }
+                return recorder.toArray();
+            }));
+        }
+
+        List<long[]> perThread = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            perThread.add(future.get());
+        }
+        executor.shutdown();
+
+        long[] latencies = perThread.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        double seconds = durationMillis / 1000.0;
+        System.out.printf("%s concurrency=%d duration=%.0fs%n", uri, concurrency, seconds);
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n", latencies.length, errors.get(), latencies.length / seconds);
+        System.out.printf("p50=%.2fms p99=%.2fms max=%.2fms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static class LatencyRecorder {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void record(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
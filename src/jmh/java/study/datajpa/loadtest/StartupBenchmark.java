@@ -0,0 +1,92 @@
+package study.datajpa.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//애플리케이션을 별도 프로세스로 띄우고 GET /members 가 처음 200 을 돌려줄 때까지 걸린 시간(time-to-first-request)을 잰다.
+//같은 클래스패스로 기본 / faststart / faststart + AOT + CDS 를 번갈아 runs 번씩 띄워서 중앙값과 최솟값을 출력한다.
+//클래스패스와 CDS 아카이브 경로는 ./gradlew startupBenchmark 가 시스템 프로퍼티로 넘긴다.
+public class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 18080;
+        String classpath = System.getProperty("startup.classpath");
+        String cdsArchive = System.getProperty("startup.cdsArchive");
+
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant("default", List.of(), List.of()));
+        variants.add(new Variant("faststart", List.of(), List.of("--spring.profiles.active=faststart")));
+        if (cdsArchive != null && new File(cdsArchive).isFile()) {
+            variants.add(new Variant("faststart+aot+cds",
+                    List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + cdsArchive),
+                    List.of("--spring.profiles.active=faststart")));
+        } else {
+            System.out.println("CDS 아카이브가 없어서 faststart+aot+cds 는 건너뛴다 (./gradlew cdsArchive)");
+        }
+
+        URI uri = URI.create("http://localhost:" + port + "/members");
+        for (Variant variant : variants) {
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = timeToFirstRequest(classpath, variant, port, uri);
+            }
+            Arrays.sort(millis);
+            System.out.printf("%-20s time-to-first-request median=%d ms min=%d ms (%d runs)%n",
+                    variant.name(), millis[runs / 2], millis[0], runs);
+        }
+    }
+
+    private static long timeToFirstRequest(String classpath, Variant variant, int port, URI uri) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(variant.jvmArgs());
+        command.addAll(List.of("-cp", classpath, "study.datajpa.DataJpaApplication", "--server.port=" + port));
+        command.addAll(variant.appArgs());
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant.name() + " 프로세스가 종료됐습니다: exit=" + process.exitValue());
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    //아직 포트가 안 열렸다
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException(variant.name() + " 가 " + TIMEOUT + " 안에 응답하지 않았습니다");
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private record Variant(String name, List<String> jvmArgs, List<String> appArgs) {
+    }
+}
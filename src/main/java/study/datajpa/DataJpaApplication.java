@@ -5,12 +5,11 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
-import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import study.datajpa.config.CachingAuditorAware;
 
 import java.util.Optional;
 import java.util.UUID;
 
-@EnableJpaAuditing
 @SpringBootApplication
 @Getter
 public class DataJpaApplication {
@@ -19,10 +18,12 @@ public class DataJpaApplication {
 		SpringApplication.run(DataJpaApplication.class, args);
 	}
 
+	//스프링 데이터 auditing(@EnableJpaAuditing) 대신 BaseEntityListener 가 이 AuditorAware 로 작성자를 채운다
 	@Bean
 	public AuditorAware<String> auditorProvider() {
 		//어디선가 세션정보 가져와서 꺼내거나 원래라면
-		return () -> Optional.of(UUID.randomUUID().toString());
+		//UUID.randomUUID() 는 SecureRandom 이라 저장할 때마다 부르면 대량 저장 때 경합이 생긴다 -> 요청/트랜잭션당 한 번만
+		return new CachingAuditorAware(() -> Optional.of(UUID.randomUUID().toString()));
 	}
 
 }
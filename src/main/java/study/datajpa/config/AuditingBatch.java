@@ -0,0 +1,58 @@
+package study.datajpa.config;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+//대량 적재 중에 열어두면 그 사이에 저장되는 엔티티는 모두 같은 시각/작성자로 찍힌다.
+//엔티티마다 시계를 읽거나 AuditorAware 를 부르지 않고, AuditingHandler(리플렉션)도 거치지 않는다. (BaseEntityListener)
+//try (AuditingBatch batch = AuditingBatch.open(clock, auditor)) { ... persist ... }
+public final class AuditingBatch implements AutoCloseable {
+
+    private static final ThreadLocal<AuditingBatch> CURRENT = new ThreadLocal<>();
+
+    private final LocalDateTime timestamp;
+    private final long epochMillis; //BaseEpochTimeEntity 용. 배치마다 한 번만 변환한다
+    private final String auditor;
+    private final AuditingBatch previous;
+
+    private AuditingBatch(long epochMillis, LocalDateTime timestamp, String auditor, AuditingBatch previous) {
+        this.timestamp = timestamp;
+        this.epochMillis = epochMillis;
+        this.auditor = auditor;
+        this.previous = previous;
+    }
+
+    //시계의 밀리초 하나에서 LocalDateTime 을 시계의 시간대로 만든다. 두 값이 같은 순간을 가리킨다
+    public static AuditingBatch open(CachedClock clock, String auditor) {
+        long epochMillis = clock.millis();
+        LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), clock.getZone());
+        AuditingBatch batch = new AuditingBatch(epochMillis, timestamp, auditor, CURRENT.get());
+        CURRENT.set(batch);
+        return batch;
+    }
+
+    public static AuditingBatch current() {
+        return CURRENT.get();
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    public String getAuditor() {
+        return auditor;
+    }
+
+    @Override
+    public void close() {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
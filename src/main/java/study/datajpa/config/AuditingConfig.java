@@ -0,0 +1,17 @@
+package study.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class AuditingConfig {
+
+    //BaseEntityListener 와 AuditingBatch 가 같은 시계를 쓴다
+    @Bean
+    public CachedClock cachedClock(@Value("${app.clock.resolution:10ms}") Duration resolution) {
+        return new CachedClock(resolution);
+    }
+}
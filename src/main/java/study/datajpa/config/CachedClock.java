@@ -0,0 +1,90 @@
+package study.datajpa.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+//감사 필드용 시계. 백그라운드 스레드가 resolution 마다 현재 시각을 한 번 계산해두고, 읽는 쪽은 같은 값을 나눠 쓴다.
+//insert 마다 LocalDateTime.now() 로 시간대 계산 + 객체 생성을 하지 않는다. (정밀도는 resolution 만큼 떨어진다)
+public class CachedClock extends Clock implements AutoCloseable {
+
+    private final ZoneId zone;
+    private final CachedClock source; //시각을 계산하는 쪽. withZone 으로 만든 시계는 원래 시계의 tick 을 같이 본다
+    private final ScheduledExecutorService ticker; //source 만 가진다
+    private volatile Tick tick;
+
+    public CachedClock(Duration resolution) {
+        this(ZoneId.systemDefault(), resolution);
+    }
+
+    public CachedClock(ZoneId zone, Duration resolution) {
+        this.zone = zone;
+        this.source = this;
+        this.tick = Tick.now(zone);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cached-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, resolution.toMillis());
+        ticker.scheduleAtFixedRate(() -> tick = Tick.now(zone), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private CachedClock(CachedClock source, ZoneId zone) {
+        this.zone = zone;
+        this.source = source;
+        this.ticker = null;
+    }
+
+    @Override
+    public long millis() {
+        return source.tick.millis;
+    }
+
+    public LocalDateTime localDateTime() {
+        Tick current = source.tick;
+        if (zone.equals(source.zone)) {
+            return current.localDateTime;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(current.millis), zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(source.tick.millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (zone.equals(this.zone)) {
+            return this;
+        }
+        return new CachedClock(source, zone); //같은 ticker 를 보므로 계속 흘러간다
+    }
+
+    //ticker 는 원래 시계가 닫는다. withZone 으로 만든 시계를 닫아도 아무 일도 없다
+    @Override
+    public void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    private record Tick(long millis, LocalDateTime localDateTime) {
+
+        static Tick now(ZoneId zone) {
+            long millis = System.currentTimeMillis();
+            return new Tick(millis, LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone));
+        }
+    }
+}
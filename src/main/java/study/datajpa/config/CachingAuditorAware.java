@@ -0,0 +1,53 @@
+package study.datajpa.config;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+//작성자를 찾는 일(resolver)은 요청당 한 번, 요청 밖이면 트랜잭션당 한 번만 하고 그 안에서는 같은 값을 돌려준다.
+//resolver 는 바꿔 끼울 수 있다. (세션/토큰에서 꺼내는 식으로)
+public class CachingAuditorAware implements AuditorAware<String> {
+
+    private static final String KEY = CachingAuditorAware.class.getName() + ".AUDITOR";
+
+    private final Supplier<Optional<String>> resolver;
+
+    public CachingAuditorAware(Supplier<Optional<String>> resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<String> getCurrentAuditor() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            Optional<String> cached = (Optional<String>) request.getAttribute(KEY, RequestAttributes.SCOPE_REQUEST);
+            if (cached == null) {
+                cached = resolver.get();
+                request.setAttribute(KEY, cached, RequestAttributes.SCOPE_REQUEST);
+            }
+            return cached;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Optional<String> cached = (Optional<String>) TransactionSynchronizationManager.getResource(KEY);
+            if (cached == null) {
+                cached = resolver.get();
+                TransactionSynchronizationManager.bindResource(KEY, cached);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(KEY);
+                    }
+                });
+            }
+            return cached;
+        }
+        return resolver.get();
+    }
+}
@@ -0,0 +1,20 @@
+package study.datajpa.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+//application-faststart.yml 은 모든 빈을 지연 초기화한다.
+//EntityManagerFactory 까지 미루면 첫 요청이 하이버네이트 부트스트랩을 통째로 기다리게 되니, 이것만 바로 만들어서
+//(deferred 모드라 백그라운드 스레드에서) 컨텍스트가 뜨는 동안 같이 준비되게 한다.
+@Configuration
+@Profile("faststart")
+public class FastStartConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerEntityManagerFactory() {
+        return LazyInitializationExcludeFilter.forBeanTypes(AbstractEntityManagerFactoryBean.class);
+    }
+}
@@ -0,0 +1,63 @@
+package study.datajpa.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+//@Transactional(readOnly = true) 트랜잭션은 레플리카로, 나머지는 프라이머리로 보낸다.
+//커넥션을 트랜잭션 속성이 정해진 뒤에 가져와야 해서 LazyConnectionDataSourceProxy 로 감싸서 쓴다.
+//커넥션을 처음 가져올 때 한 번 정해지므로 EntityManager 가 트랜잭션이 끝난 뒤에도 커넥션을 들고 있으면 안 된다
+//(application.yml 의 open-in-view: false, hibernate.connection.handling_mode)
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private static final Object WRITE_TRACKED = ReplicationRoutingDataSource.class.getName() + ".WRITE_TRACKED";
+
+    private final long maxReplicaLagMillis;
+    private final AtomicLong lastWriteCommittedAt = new AtomicLong();
+
+    public ReplicationRoutingDataSource(Duration maxReplicaLag) {
+        this.maxReplicaLagMillis = maxReplicaLag.toMillis();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return withinReplicaLag() ? Route.PRIMARY : Route.REPLICA;
+        }
+        trackWriteCommit();
+        return Route.PRIMARY;
+    }
+
+    //방금 커밋된 쓰기가 아직 레플리카에 안 넘어갔을 수 있는 시간 동안은 읽기도 프라이머리에서 한다
+    private boolean withinReplicaLag() {
+        return maxReplicaLagMillis > 0
+                && System.currentTimeMillis() - lastWriteCommittedAt.get() < maxReplicaLagMillis;
+    }
+
+    private void trackWriteCommit() {
+        if (maxReplicaLagMillis <= 0
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_TRACKED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_TRACKED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteCommittedAt.set(System.currentTimeMillis());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_TRACKED);
+            }
+        });
+    }
+}
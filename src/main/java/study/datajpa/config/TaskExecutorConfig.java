@@ -0,0 +1,50 @@
+package study.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+//작업용 스레드 풀은 빈으로 두어서 컨테이너가 종료까지 관리하고, executor 메트릭(executor.active, executor.queued ...)으로 보인다.
+@Configuration
+public class TaskExecutorConfig {
+
+    public static final String MEMBER_BULK_UPDATE_EXECUTOR = "memberBulkUpdateExecutor";
+
+    //MemberBulkUpdateService 의 청크 워커. 동시에 여러 작업이 돌아도 합쳐서 workers 개만 커넥션을 쓴다
+    @Bean(MEMBER_BULK_UPDATE_EXECUTOR)
+    public ThreadPoolTaskExecutor memberBulkUpdateExecutor(@Value("${member.bulk-update.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("member-bulk-update-");
+        executor.setWaitForTasksToCompleteOnShutdown(true); //청크는 자기 트랜잭션으로 끝나니 종료할 때 끝까지 기다린다
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    //Executor 빈이 하나라도 있으면 스프링 부트가 applicationTaskExecutor(비동기 MVC 응답, @Async 용)를 만들지 않는다.
+    //TaskExecutionAutoConfiguration 과 같은 방식으로 직접 둔다. (spring.task.execution.*, spring.threads.virtual.enabled 그대로)
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder threadPoolTaskExecutorBuilder) {
+        return threadPoolTaskExecutorBuilder.build();
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor applicationTaskExecutorVirtualThreads(SimpleAsyncTaskExecutorBuilder simpleAsyncTaskExecutorBuilder) {
+        return simpleAsyncTaskExecutorBuilder.build();
+    }
+}
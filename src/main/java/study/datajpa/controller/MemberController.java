@@ -4,19 +4,46 @@ import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.datajpa.dto.BulkIngestResult;
+import study.datajpa.dto.BulkUpdateResult;
+import study.datajpa.dto.CursorPage;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberIngestRow;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberCursor;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberBulkIngestService;
+import study.datajpa.service.MemberBulkUpdateService;
+import study.datajpa.service.MemberExportService;
+import study.datajpa.service.MemberUpdateService;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_KEYSET_SIZE = 2000; //max-page-size 와 맞춤
+
     private final MemberRepository memberRepository;
+    private final MemberExportService memberExportService;
+    private final MemberBulkIngestService memberBulkIngestService;
+    private final MemberBulkUpdateService memberBulkUpdateService;
+    private final MemberUpdateService memberUpdateService;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
@@ -31,18 +58,70 @@ public class MemberController {
 
     @GetMapping("/members")
     public Page<MemberDto> list(@PageableDefault(size = 5) Pageable pageable) {
-        Page<Member> page = memberRepository.findAll(pageable);
         //페이지를 반환헀지만 엔티티를 그대로 외부에 노출하며 안된다. 스펙 외부 노출 + 엔티티 변하는 순간 스펙이 변경되버림 -> dto로 바꿔서 내보내기 아래와 같이 ***
-//        Page<MemberDto> map = page.map(member -> new MemberDto(member));
-        Page<MemberDto> map = page.map(MemberDto::new);
-        return map;
+//        Page<MemberDto> map = memberRepository.findAllWithCachedCount(pageable).map(MemberDto::new);
+        //엔티티를 읽고 map 하면 스냅샷/프록시 비용만 들고 teamName 은 비어 있다 -> 처음부터 DTO로 조회 (count 쿼리는 캐시된 값을 쓴다)
+        return memberRepository.findMemberDto(pageable);
+    }
+
+    //offset 페이징은 뒤로 갈수록 느려진다 -> 커서(마지막으로 본 키)로 다음 페이지를 찾는 키셋 페이징
+    @GetMapping("/members/keyset")
+    public CursorPage<MemberDto> keyset(@RequestParam(value = "cursor", required = false) String cursor,
+                                        @RequestParam(value = "order", defaultValue = "ID") MemberCursor.Order order,
+                                        @RequestParam(value = "size", defaultValue = "5") int size) {
+        MemberCursor memberCursor;
+        try {
+            memberCursor = cursor == null ? MemberCursor.first(order) : MemberCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        Slice<Member> slice = memberRepository.findMemberKeyset(memberCursor, Math.min(Math.max(size, 1), MAX_KEYSET_SIZE));
+        List<Member> content = slice.getContent();
+
+        String nextCursor = slice.hasNext()
+                ? MemberCursor.after(content.get(content.size() - 1), memberCursor.getOrder()).encode()
+                : null;
+        return new CursorPage<>(content.stream().map(MemberDto::new).toList(), nextCursor, slice.hasNext());
+    }
+
+    //전체 회원을 NDJSON으로 흘려보낸다. 응답은 별도 스레드에서 쓰이고 트랜잭션도 그 안에서 열린다.
+    @GetMapping(value = "/members/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = memberExportService::exportNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    //대량 적재. 한 건씩 save 하지 않고 JDBC 배치로 insert 한다.
+    @PostMapping("/members/bulk")
+    public BulkIngestResult bulkIngest(@RequestBody List<MemberIngestRow> rows) {
+        return memberBulkIngestService.ingest(rows);
+    }
+
+    //나이 일괄 증가. 중간에 실패하면 같은 job 으로 다시 호출하면 남은 청크만 처리한다.
+    @PostMapping("/members/age-plus")
+    public BulkUpdateResult agePlus(@RequestParam("job") String job, @RequestParam("age") int age) {
+        try {
+            return memberBulkUpdateService.agePlus(job, age);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    //동시에 들어와도 덮어쓰지 않고 충돌 나면 재시도한다. 바뀐 나이를 돌려준다.
+    @PostMapping("/members/{id}/age")
+    public int addAge(@PathVariable("id") Long id, @RequestParam(value = "delta", defaultValue = "1") int delta) {
+        return memberUpdateService.addAge(id, delta);
     }
 
 //    @PostConstruct //스프링 올라 올 때 한번 실행이 되는 것
     public void init() {
+        List<MemberIngestRow> rows = new ArrayList<>();
         for (int i=0; i< 100; i++) {
-            memberRepository.save(new Member("user"+i, i));
+            rows.add(new MemberIngestRow("user"+i, i, null));
         }
-
+        memberBulkIngestService.ingest(rows);
     }
 }
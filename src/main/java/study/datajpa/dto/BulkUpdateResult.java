@@ -0,0 +1,23 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class BulkUpdateResult {
+
+    private final String jobName;
+    private final int chunks; //이번 실행에서 처리한 청크 수 (이미 완료된 청크는 빠진다)
+    private final int failedChunks; //실패한 청크는 같은 jobName 으로 다시 돌리면 이어서 처리된다
+    private final long updatedRows;
+    private final long elapsedMillis;
+
+    public BulkUpdateResult(String jobName, int chunks, int failedChunks, long updatedRows, long elapsedNanos) {
+        this.jobName = jobName;
+        this.chunks = chunks;
+        this.failedChunks = failedChunks;
+        this.updatedRows = updatedRows;
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor; //다음 페이지 요청 때 그대로 돌려주면 되는 토큰 (마지막 페이지면 null)
+    private final boolean hasNext;
+
+    public CursorPage(List<T> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,15 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberIngestRow {
+
+    private String username;
+    private int age;
+    private String teamName; //없으면 팀 없이 저장
+}
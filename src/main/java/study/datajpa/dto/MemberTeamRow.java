@@ -0,0 +1,5 @@
+package study.datajpa.dto;
+
+//네이티브 쿼리 결과 한 행. 인터페이스 프로젝션(프록시)이나 리플렉션 없이 생성자로 바로 만든다.
+public record MemberTeamRow(Long id, String username, String teamName) {
+}
@@ -0,0 +1,25 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import lombok.Getter;
+
+//시각 + 작성자
+@MappedSuperclass
+@Getter
+public abstract class BaseEntity extends BaseTimeEntity {
+
+    @Column(updatable = false)
+    private String createdBy;
+
+    private String lastModifiedBy;
+
+    void stampCreatedBy(String auditor) {
+        this.createdBy = auditor;
+        this.lastModifiedBy = auditor;
+    }
+
+    void stampModifiedBy(String auditor) {
+        this.lastModifiedBy = auditor;
+    }
+}
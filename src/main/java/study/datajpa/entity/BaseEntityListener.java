@@ -0,0 +1,58 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.AuditorAware;
+import study.datajpa.config.AuditingBatch;
+import study.datajpa.config.CachedClock;
+
+//BaseTimeEntity / BaseEntity / BaseEpochTimeEntity 공통 리스너.
+//AuditingHandler 는 엔티티마다 리플렉션으로 애노테이션 필드를 찾아 쓰는데, 여기서는 타입을 보고 필드에 바로 넣는다.
+//시각은 CachedClock 에서 가져오고, AuditingBatch 가 열려 있으면 배치의 시각/작성자를 쓴다.
+//(하이버네이트가 SpringBeanContainer 로 만들어서 생성자 주입이 된다)
+public class BaseEntityListener {
+
+    private final ObjectProvider<CachedClock> clock;
+    private final ObjectProvider<AuditorAware<String>> auditorAware;
+
+    public BaseEntityListener(ObjectProvider<CachedClock> clock, ObjectProvider<AuditorAware<String>> auditorAware) {
+        this.clock = clock;
+        this.auditorAware = auditorAware;
+    }
+
+    @PrePersist
+    public void touchForCreate(Object target) {
+        AuditingBatch batch = AuditingBatch.current();
+        if (target instanceof BaseEpochTimeEntity entity) {
+            entity.stampCreated(batch != null ? batch.getEpochMillis() : clock.getObject().millis());
+            return;
+        }
+        if (target instanceof BaseTimeEntity entity) {
+            entity.stampCreated(batch != null ? batch.getTimestamp() : clock.getObject().localDateTime());
+        }
+        if (target instanceof BaseEntity entity) {
+            entity.stampCreatedBy(batch != null ? batch.getAuditor() : currentAuditor());
+        }
+    }
+
+    @PreUpdate
+    public void touchForUpdate(Object target) {
+        AuditingBatch batch = AuditingBatch.current();
+        if (target instanceof BaseEpochTimeEntity entity) {
+            entity.stampModified(batch != null ? batch.getEpochMillis() : clock.getObject().millis());
+            return;
+        }
+        if (target instanceof BaseTimeEntity entity) {
+            entity.stampModified(batch != null ? batch.getTimestamp() : clock.getObject().localDateTime());
+        }
+        if (target instanceof BaseEntity entity) {
+            entity.stampModifiedBy(batch != null ? batch.getAuditor() : currentAuditor());
+        }
+    }
+
+    private String currentAuditor() {
+        AuditorAware<String> aware = auditorAware.getIfAvailable();
+        return aware != null ? aware.getCurrentAuditor().orElse(null) : null;
+    }
+}
@@ -0,0 +1,28 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.MappedSuperclass;
+import lombok.Getter;
+
+//BaseTimeEntity 의 epoch 밀리초 버전. bigint 컬럼이고 엔티티에는 long 으로 들고 있어서 LocalDateTime 을 만들지 않는다.
+//시간대 변환은 읽는 쪽 몫이다. 0 이면 아직 저장 전.
+@EntityListeners(BaseEntityListener.class)
+@MappedSuperclass
+@Getter
+public abstract class BaseEpochTimeEntity {
+
+    @Column(updatable = false)
+    private long createdAt;
+
+    private long lastModifiedAt;
+
+    void stampCreated(long epochMillis) {
+        this.createdAt = epochMillis;
+        this.lastModifiedAt = epochMillis;
+    }
+
+    void stampModified(long epochMillis) {
+        this.lastModifiedAt = epochMillis;
+    }
+}
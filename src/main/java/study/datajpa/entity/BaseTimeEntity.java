@@ -0,0 +1,30 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.MappedSuperclass;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+//등록/수정 시각만 남긴다. 작성자가 필요 없는 테이블은 이걸 상속해서 행마다 문자열 컬럼 두 개를 아낀다.
+@EntityListeners(BaseEntityListener.class)
+@MappedSuperclass
+@Getter
+public abstract class BaseTimeEntity {
+
+    @Column(updatable = false) //값을 실수로라도 바꿔도 업데이트 되지 않음
+    private LocalDateTime createdDate;
+
+    private LocalDateTime lastModifiedDate;
+
+    //생성 때는 수정 시각도 같이 채운다 (AuditingHandler 의 modifyOnCreate 와 같게)
+    void stampCreated(LocalDateTime now) {
+        this.createdDate = now;
+        this.lastModifiedDate = now;
+    }
+
+    void stampModified(LocalDateTime now) {
+        this.lastModifiedDate = now;
+    }
+}
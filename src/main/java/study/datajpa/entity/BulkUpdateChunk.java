@@ -0,0 +1,55 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+//청크 단위 대량 수정의 진행 상황. 청크 수정과 완료 표시를 같은 트랜잭션에서 커밋해서
+//중간에 죽어도 같은 jobName 으로 다시 돌리면 완료 안 된 청크만 이어서 처리한다.
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"job_name", "range_start"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "jobName", "rangeStart", "rangeEnd", "ageThreshold", "completed"})
+public class BulkUpdateChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bulk_update_chunk_seq_generator")
+    @SequenceGenerator(name = "bulk_update_chunk_seq_generator", sequenceName = "bulk_update_chunk_seq", allocationSize = 50)
+    @Column(name = "chunk_id")
+    private Long id;
+
+    @Column(name = "job_name", nullable = false)
+    private String jobName;
+
+    @Column(name = "range_start", nullable = false)
+    private Long rangeStart; //포함
+
+    @Column(name = "range_end", nullable = false)
+    private Long rangeEnd; //제외
+
+    //계획할 때의 조건 (age 이상). 이어서 돌릴 때도 이 값으로 수정해서 청크마다 조건이 달라지지 않는다
+    @Column(name = "age_threshold", nullable = false)
+    private int ageThreshold;
+
+    private boolean completed;
+    private int updatedRows;
+    private LocalDateTime completedDate;
+
+    public BulkUpdateChunk(String jobName, Long rangeStart, Long rangeEnd, int ageThreshold) {
+        this.jobName = jobName;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.ageThreshold = ageThreshold;
+    }
+
+    public void complete(int updatedRows) {
+        this.completed = true;
+        this.updatedRows = updatedRows;
+        this.completedDate = LocalDateTime.now();
+    }
+}
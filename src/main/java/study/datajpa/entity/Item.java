@@ -1,36 +1,33 @@
 package study.datajpa.entity;
 
 import jakarta.persistence.Entity;
-import jakarta.persistence.EntityListeners;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.domain.Persistable;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
-
-import java.time.LocalDateTime;
 
+//대량으로 쌓이는 테이블이라 작성자 없이 epoch 밀리초(bigint)로만 남긴다
 @Entity
-@EntityListeners(AuditingEntityListener.class)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class Item implements Persistable<String> {
+public class Item extends BaseEpochTimeEntity implements Persistable<String> {
 
     @Id
     private String id;
 
-    @CreatedDate
-    private LocalDateTime createdDate;
-
     public Item(String id) {
         this.id = id;
     }
 
+    //JPA 를 거치지 않고 저장했을 때 (ItemRepositoryImpl 의 MERGE) 저장된 값으로 맞춘다
+    public void markStored(long createdAt, long lastModifiedAt) {
+        stampCreated(createdAt);
+        stampModified(lastModifiedAt);
+    }
+
     @Override
     public boolean isNew() {
-        return createdDate == null;
+        return getCreatedAt() == 0;
     }
 }
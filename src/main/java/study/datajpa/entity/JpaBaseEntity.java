@@ -1,32 +0,0 @@
-package study.datajpa.entity;
-
-import jakarta.persistence.Column;
-import jakarta.persistence.MappedSuperclass;
-import jakarta.persistence.PrePersist;
-import jakarta.persistence.PreUpdate;
-import lombok.Getter;
-
-import java.time.LocalDateTime;
-
-@MappedSuperclass
-@Getter
-public class JpaBaseEntity {
-
-    @Column(updatable = false) //값을 실수로라도 바꿔도 업데이트 되지 않음
-    private LocalDateTime createDate;
-    private LocalDateTime updatedDate;
-
-
-    @PrePersist
-    public void prePersist() {
-        //persist하기전에 하는거 JPA에서 제공
-        LocalDateTime now = LocalDateTime.now();
-        createDate = now;
-        updatedDate = now;
-    }
-
-    @PreUpdate
-    public void preUpdate() {
-        updatedDate = LocalDateTime.now();
-    }
-}
@@ -2,24 +2,52 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import study.datajpa.DataJpaApplication;
+import study.datajpa.repository.MemberCountCacheListener;
+import study.datajpa.repository.MemberUsernameCacheListener;
 
 @Entity
+@Table(indexes = {
+        //username 으로 찾는 쿼리가 대부분이다. 복합 인덱스의 앞 컬럼이라 username 만으로 찾을 때도 이걸 쓴다 (findByUsernameAndAgeGreaterThan 은 age 까지)
+        @Index(name = "idx_member_username_age", columnList = "username, age"),
+        @Index(name = "idx_member_age", columnList = "age") //findByAge 페이징, bulkAgePlus, SKIP LOCKED 작업 가져가기
+})
+@EntityListeners({MemberUsernameCacheListener.class, MemberCountCacheListener.class})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) //쿼리 캐시는 id만 저장해서, 엔티티도 캐시에 있어야 한 건씩 다시 조회하지 않는다
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
 @NamedQuery(
-        name= "Member.findByUsername",
-        query= "select m from Member m where m.username = :username"
+        name= MemberQueries.FIND_BY_USERNAME,
+        query= MemberQueries.FIND_BY_USERNAME_JPQL,
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true")
 )
-public class Member extends DataBaseEntity {
+//MemberJpaRepository 용 (MemberQueries)
+@NamedQuery(name = MemberQueries.FIND_ALL, query = MemberQueries.FIND_ALL_JPQL)
+@NamedQuery(name = MemberQueries.COUNT, query = MemberQueries.COUNT_JPQL)
+@NamedQuery(name = MemberQueries.FIND_BY_USERNAME_AND_AGE_GREATER_THAN, query = MemberQueries.FIND_BY_USERNAME_AND_AGE_GREATER_THAN_JPQL)
+@NamedQuery(name = MemberQueries.FIND_BY_AGE_ORDER_BY_USERNAME_DESC, query = MemberQueries.FIND_BY_AGE_ORDER_BY_USERNAME_DESC_JPQL)
+@NamedQuery(name = MemberQueries.COUNT_BY_AGE, query = MemberQueries.COUNT_BY_AGE_JPQL)
+@NamedQuery(name = MemberQueries.BULK_AGE_PLUS, query = MemberQueries.BULK_AGE_PLUS_JPQL)
+public class Member extends BaseEntity {
 
-    @Id @GeneratedValue
+    //IDENTITY 가 아니라 시퀀스를 50개씩 미리 받아와서(pooled-lo) insert 를 JDBC 배치로 묶을 수 있다
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
     private String username;
     private int age;
 
+    //동시에 같은 회원을 고치면 나중에 커밋하는 쪽이 OptimisticLockException (덮어쓰지 않는다). 재시도는 OptimisticRetryExecutor
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
@@ -0,0 +1,36 @@
+package study.datajpa.entity;
+
+//Member 에 선언한 이름 있는 쿼리(@NamedQuery)의 이름과 JPQL.
+//하이버네이트가 시작할 때 전부 파싱/검증해서 플랜 캐시에 올려두므로 첫 요청에서 JPQL 을 파싱하지 않고, 오타가 있으면 애플리케이션이 뜨지 않는다.
+//스프링 데이터가 MemberRepository 메서드 이름(Member.메서드명)으로 이름 있는 쿼리를 찾아가므로 겹치지 않게 Member.jpa. 로 시작한다.
+public final class MemberQueries {
+
+    //MemberRepository.findByUsername 도 이름이 같아서 이 쿼리를 쓴다 (쿼리 캐시 힌트는 Member 에)
+    public static final String FIND_BY_USERNAME = "Member.findByUsername";
+    public static final String FIND_BY_USERNAME_JPQL = "select m from Member m where m.username = :username";
+
+    public static final String FIND_ALL = "Member.jpa.findAll";
+    public static final String FIND_ALL_JPQL = "select m from Member m";
+
+    public static final String COUNT = "Member.jpa.count";
+    public static final String COUNT_JPQL = "select count(m) from Member m";
+
+    public static final String FIND_BY_USERNAME_AND_AGE_GREATER_THAN = "Member.jpa.findByUsernameAndAgeGreaterThan";
+    public static final String FIND_BY_USERNAME_AND_AGE_GREATER_THAN_JPQL =
+            "select m from Member m where m.username = :username and m.age > :age";
+
+    public static final String FIND_BY_AGE_ORDER_BY_USERNAME_DESC = "Member.jpa.findByAgeOrderByUsernameDesc";
+    public static final String FIND_BY_AGE_ORDER_BY_USERNAME_DESC_JPQL =
+            "select m from Member m where m.age = :age order by m.username desc";
+
+    public static final String COUNT_BY_AGE = "Member.jpa.countByAge";
+    public static final String COUNT_BY_AGE_JPQL = "select count(m) from Member m where m.age = :age";
+
+    //벌크 수정도 버전을 올려야 다른 트랜잭션이 덮어쓰지 않는다
+    public static final String BULK_AGE_PLUS = "Member.jpa.bulkAgePlus";
+    public static final String BULK_AGE_PLUS_JPQL =
+            "update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age";
+
+    private MemberQueries() {
+    }
+}
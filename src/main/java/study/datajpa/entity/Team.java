@@ -2,21 +2,36 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) //거의 안 바뀌는 조회용 엔티티라 2차 캐시에 둔다
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
-public class Team extends JpaBaseEntity{
+@BatchSize(size = 100) //member.getTeam() 프록시를 100개씩 묶어서 초기화
+public class Team extends BaseTimeEntity {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
     private String name;
 
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    @BatchSize(size = 100) //여러 팀의 members 를 한 번에 초기화. 서브쿼리로 받고 싶으면 FetchTuning.withSubselect
+    @OptimisticLock(excluded = true) //회원이 팀에 들어오고 나가는 건 팀 자체의 수정이 아니라서 버전을 올리지 않는다
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
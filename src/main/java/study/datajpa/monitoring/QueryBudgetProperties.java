@@ -0,0 +1,20 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "query-budget")
+public class QueryBudgetProperties {
+
+    public enum Mode {
+        WARN, FAIL
+    }
+
+    private boolean enabled = true;
+    private int maxStatements = 30; //요청/트랜잭션 하나에서 허용하는 SQL 수
+    private int maxRepeated = 5; //같은 SQL(바인딩 값만 다른)이 이만큼 넘게 반복되면 N+1 로 본다
+    private Mode mode = Mode.WARN;
+}
@@ -0,0 +1,40 @@
+package study.datajpa.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+
+//한 요청(또는 한 트랜잭션) 동안 나간 SQL 개수.
+//StatementInspector 로 들어오는 SQL은 바인딩 값이 ? 로 되어 있어서 문자열이 같으면 "값만 다른 같은 쿼리" 이다 -> N+1 의심
+public class QueryCount {
+
+    private final Map<String, Integer> statements = new HashMap<>();
+    private int total;
+    private int maxRepeated;
+    private String mostRepeated;
+
+    public int record(String sql) {
+        total++;
+        int repeated = statements.merge(sql, 1, Integer::sum);
+        if (repeated > maxRepeated) {
+            maxRepeated = repeated;
+            mostRepeated = sql;
+        }
+        return repeated;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getMaxRepeated() {
+        return maxRepeated;
+    }
+
+    public String getMostRepeated() {
+        return mostRepeated;
+    }
+
+    public int getDistinct() {
+        return statements.size();
+    }
+}
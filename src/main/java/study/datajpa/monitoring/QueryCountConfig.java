@@ -0,0 +1,40 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class QueryCountConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<QueryCountInspector> queryCountInspector;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public QueryCountConfig(ObjectProvider<QueryCountInspector> queryCountInspector, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.queryCountInspector = queryCountInspector;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public QueryCountInspector queryCountInspector(QueryBudgetProperties properties, MeterRegistry meterRegistry) {
+        return new QueryCountInspector(properties, meterRegistry);
+    }
+
+    //하이버네이트가 직접 만드는 대신 스프링 빈으로 만든 inspector 를 넘긴다
+    @Bean
+    public HibernatePropertiesCustomizer queryCountInspectorCustomizer(QueryCountInspector queryCountInspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCountInspector);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryCountInterceptor(queryCountInspector.getObject(), meterRegistry.getObject()));
+    }
+}
@@ -0,0 +1,24 @@
+package study.datajpa.monitoring;
+
+//요청 단위 SQL 카운터를 스레드에 붙여둔다. (QueryCountInterceptor 가 요청 시작/끝에 start/clear)
+public final class QueryCountHolder {
+
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    private QueryCountHolder() {
+    }
+
+    public static QueryCount start() {
+        QueryCount count = new QueryCount();
+        CURRENT.set(count);
+        return count;
+    }
+
+    public static QueryCount current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
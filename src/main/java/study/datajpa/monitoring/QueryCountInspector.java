@@ -0,0 +1,89 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+//하이버네이트가 SQL을 준비할 때마다 불린다. 요청 카운터와 트랜잭션 카운터에 SQL을 세고 예산을 넘으면 경고/실패시킨다.
+@Slf4j
+public class QueryCountInspector implements StatementInspector {
+
+    private static final Object TRANSACTION_KEY = QueryCountInspector.class.getName() + ".TRANSACTION";
+
+    private final QueryBudgetProperties properties;
+    private final DistributionSummary transactionStatements;
+
+    public QueryCountInspector(QueryBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.transactionStatements = DistributionSummary.builder("jpa.transaction.sql.statements")
+                .description("SQL statements per transaction")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (!properties.isEnabled()) {
+            return sql;
+        }
+
+        QueryCount requestCount = QueryCountHolder.current();
+        if (requestCount != null) {
+            check("request", requestCount, requestCount.record(sql));
+        }
+
+        QueryCount transactionCount = transactionCount();
+        if (transactionCount != null) {
+            check("transaction", transactionCount, transactionCount.record(sql));
+        }
+        return sql;
+    }
+
+    //WARN 모드는 요청/트랜잭션이 끝날 때 한 번만 로그를 남기고, FAIL 모드는 넘는 순간 예외를 던진다
+    private void check(String scope, QueryCount count, int repeated) {
+        if (properties.getMode() != QueryBudgetProperties.Mode.FAIL) {
+            return;
+        }
+        if (count.getTotal() > properties.getMaxStatements()) {
+            throw new QueryBudgetExceededException(scope + " 에서 SQL 이 " + count.getTotal()
+                    + "번 실행되어 예산(" + properties.getMaxStatements() + ")을 넘었습니다.");
+        }
+        if (repeated > properties.getMaxRepeated()) {
+            throw new QueryBudgetExceededException(scope + " 에서 같은 SQL 이 " + repeated
+                    + "번 반복되었습니다 (N+1 의심): " + count.getMostRepeated());
+        }
+    }
+
+    public void warnIfOverBudget(String scope, QueryCount count) {
+        if (count.getTotal() > properties.getMaxStatements() || count.getMaxRepeated() > properties.getMaxRepeated()) {
+            log.warn("SQL budget exceeded in {}: total={}, distinct={}, maxRepeated={} (budget total={}, repeated={}), mostRepeated=[{}]",
+                    scope, count.getTotal(), count.getDistinct(), count.getMaxRepeated(),
+                    properties.getMaxStatements(), properties.getMaxRepeated(), count.getMostRepeated());
+        }
+    }
+
+    //트랜잭션마다 카운터를 하나씩 리소스로 바인딩하고, 끝날 때 히스토그램에 기록하고 푼다
+    private QueryCount transactionCount() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        QueryCount count = (QueryCount) TransactionSynchronizationManager.getResource(TRANSACTION_KEY);
+        if (count == null) {
+            QueryCount newCount = new QueryCount();
+            TransactionSynchronizationManager.bindResource(TRANSACTION_KEY, newCount);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_KEY);
+                    transactionStatements.record(newCount.getTotal());
+                    warnIfOverBudget("transaction", newCount);
+                }
+            });
+            count = newCount;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,74 @@
+package study.datajpa.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+//GET /actuator/queryplans : 하이버네이트 쿼리 플랜 캐시 hit/miss 와 쿼리 문자열별 실행/플랜 캐시 통계
+//플랜 캐시 miss 가 많은 쿼리가 위로 온다. 실행이 한 번뿐인 쿼리가 많으면(singleUseQueries) 값을 문자열에 이어 붙여서 쿼리를 만드는 곳이 있다는 뜻이다.
+//generate_statistics 가 켜져 있어야 하고, 쿼리 목록은 hibernate.statistics.query_max_size 개까지만 남는다.
+@Component
+@Endpoint(id = "queryplans")
+public class QueryPlanEndpoint {
+
+    private final Statistics statistics;
+    private final int planCacheMaxSize;
+
+    public QueryPlanEndpoint(EntityManagerFactory emf,
+                             @Value("${spring.jpa.properties.hibernate.query.plan_cache_max_size:2048}") int planCacheMaxSize) {
+        this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        this.planCacheMaxSize = planCacheMaxSize;
+    }
+
+    @ReadOperation
+    public QueryPlans queryPlans(@Nullable Integer limit) {
+        List<QueryPlan> plans = Arrays.stream(statistics.getQueries())
+                .map(query -> QueryPlan.of(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(QueryPlan::planCacheMisses).reversed()
+                        .thenComparing(Comparator.comparingLong(QueryPlan::executions).reversed()))
+                .toList();
+
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        return new QueryPlans(
+                statistics.isStatisticsEnabled(),
+                planCacheMaxSize,
+                hits,
+                misses,
+                hits + misses == 0 ? 0 : (double) hits / (hits + misses),
+                plans.size(),
+                plans.stream().filter(plan -> plan.executions() <= 1).count(),
+                limit == null ? plans : plans.stream().limit(limit).toList());
+    }
+
+    //POST /actuator/queryplans : 통계를 비우고 처음부터 다시 센다 (플랜 캐시 자체는 그대로)
+    @WriteOperation
+    public void reset() {
+        statistics.clear();
+    }
+
+    public record QueryPlans(boolean statisticsEnabled, int planCacheMaxSize,
+                             long planCacheHits, long planCacheMisses, double planCacheHitRatio,
+                             int distinctQueries, long singleUseQueries, List<QueryPlan> queries) {
+    }
+
+    public record QueryPlan(String query, long executions, long planCacheHits, long planCacheMisses,
+                            long planCompilationMicros, long avgExecutionMillis, long rows) {
+
+        static QueryPlan of(String query, QueryStatistics stats) {
+            return new QueryPlan(query, stats.getExecutionCount(), stats.getPlanCacheHitCount(), stats.getPlanCacheMissCount(),
+                    stats.getPlanCompilationTotalMicroseconds(), stats.getExecutionAvgTime(), stats.getExecutionRowCount());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package study.datajpa.monitoring;
+
+import org.hibernate.CallbackException;
+import org.hibernate.Interceptor;
+import org.hibernate.SessionEventListener;
+import org.hibernate.type.Type;
+
+//세션 이벤트(실행된 SQL, flush)와 엔티티 로딩을 지금 실행 중인 리포지토리 호출에 기록한다.
+//상태가 없어서 하이버네이트가 세션마다 새로 만들어도(session.events.auto), 팩토리 하나를 같이 써도(interceptor) 된다.
+public class RepositoryHibernateListener implements SessionEventListener, Interceptor {
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RepositoryInvocation invocation = RepositoryInvocation.current();
+        if (invocation != null) {
+            invocation.statementExecuted();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RepositoryInvocation invocation = RepositoryInvocation.current();
+        if (invocation != null) {
+            invocation.statementExecuted();
+        }
+    }
+
+    @Override
+    public void flushStart() {
+        RepositoryInvocation invocation = RepositoryInvocation.current();
+        if (invocation != null) {
+            invocation.flushStarted();
+        }
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        RepositoryInvocation invocation = RepositoryInvocation.current();
+        if (invocation != null) {
+            invocation.flushEnded();
+        }
+    }
+
+    //쿼리 전에 하는 자동 flush
+    @Override
+    public void partialFlushStart() {
+        flushStart();
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        flushEnd(numberOfEntities, numberOfCollections);
+    }
+
+    //이미 영속성 컨텍스트에 있는 엔티티는 다시 불리지 않는다 -> 새로 만들어진(하이드레이션된) 엔티티 수
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) throws CallbackException {
+        RepositoryInvocation invocation = RepositoryInvocation.current();
+        if (invocation != null) {
+            invocation.entityLoaded();
+        }
+        return false;
+    }
+}
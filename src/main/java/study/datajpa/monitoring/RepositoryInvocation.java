@@ -0,0 +1,70 @@
+package study.datajpa.monitoring;
+
+//리포지토리 메서드 한 번 호출하는 동안 하이버네이트에서 일어난 일. 스레드에 붙여두고 RepositoryHibernateListener 가 채운다.
+//리포지토리 안에서 다른 리포지토리를 부르면 안쪽 호출이 끝날 때 바깥 호출에도 더해진다.
+public class RepositoryInvocation {
+
+    private static final ThreadLocal<RepositoryInvocation> CURRENT = new ThreadLocal<>();
+
+    private final RepositoryInvocation parent;
+    private int statements;
+    private int entitiesLoaded;
+    private long flushNanos;
+    private long flushStartedAt;
+
+    private RepositoryInvocation(RepositoryInvocation parent) {
+        this.parent = parent;
+    }
+
+    public static RepositoryInvocation start() {
+        RepositoryInvocation invocation = new RepositoryInvocation(CURRENT.get());
+        CURRENT.set(invocation);
+        return invocation;
+    }
+
+    public static RepositoryInvocation current() {
+        return CURRENT.get();
+    }
+
+    public void end() {
+        if (parent == null) {
+            CURRENT.remove();
+            return;
+        }
+        parent.statements += statements;
+        parent.entitiesLoaded += entitiesLoaded;
+        parent.flushNanos += flushNanos;
+        CURRENT.set(parent);
+    }
+
+    void statementExecuted() {
+        statements++;
+    }
+
+    void entityLoaded() {
+        entitiesLoaded++;
+    }
+
+    void flushStarted() {
+        flushStartedAt = System.nanoTime();
+    }
+
+    void flushEnded() {
+        if (flushStartedAt != 0) {
+            flushNanos += System.nanoTime() - flushStartedAt;
+            flushStartedAt = 0;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public long getFlushNanos() {
+        return flushNanos;
+    }
+}
@@ -0,0 +1,41 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+//모든 스프링 데이터 리포지토리 프록시 맨 바깥에 RepositoryMetricsInterceptor 를 건다.
+//결과는 /actuator/metrics/repository.invocations?tag=method:findByAge 처럼 메서드별로 본다.
+@Configuration
+public class RepositoryMetricsConfig {
+
+    //리포지토리 팩토리 빈이 초기화(리포지토리 생성)되기 전에 커스터마이저를 넣어야 한다
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0,
+                                    new RepositoryMetricsInterceptor(meterRegistry.getObject(),
+                                            repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer repositoryMetricsHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, RepositoryHibernateListener.class.getName());
+            properties.put(AvailableSettings.INTERCEPTOR, new RepositoryHibernateListener());
+        };
+    }
+}
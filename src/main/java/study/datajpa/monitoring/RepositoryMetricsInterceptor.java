@@ -0,0 +1,105 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+
+//리포지토리 메서드마다 시간, 결과 행 수, 실행된 SQL 수, 새로 로딩된 엔티티 수, flush 시간을 기록한다.
+//트랜잭션 프록시보다 바깥에 걸어서 커밋 때의 flush 까지 포함한다.
+//(스프링 부트의 spring.data.repository.invocations 는 쿼리 실행만 재서 트랜잭션/flush 가 빠진다)
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final String repository;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(MeterRegistry meterRegistry, Class<?> repositoryInterface) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Meters methodMeters = meters.computeIfAbsent(invocation.getMethod(), this::register);
+        RepositoryInvocation stats = RepositoryInvocation.start();
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            Object result = invocation.proceed();
+            long rows = rows(result);
+            if (rows >= 0) {
+                methodMeters.rows.record(rows);
+            }
+            return result;
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            stats.end();
+            Timer.builder("repository.invocations")
+                    .description("Repository method latency including transaction and flush")
+                    .tags(methodMeters.tags.and("outcome", outcome))
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            methodMeters.statements.record(stats.getStatements());
+            methodMeters.entitiesLoaded.record(stats.getEntitiesLoaded());
+            if (stats.getFlushNanos() > 0) {
+                methodMeters.flush.record(stats.getFlushNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private Meters register(Method method) {
+        Tags tags = Tags.of("repository", repository, "method", method.getName());
+        return new Meters(tags,
+                DistributionSummary.builder("repository.invocation.rows")
+                        .description("Rows returned per repository call")
+                        .tags(tags).register(meterRegistry),
+                DistributionSummary.builder("repository.invocation.statements")
+                        .description("SQL statements executed per repository call")
+                        .tags(tags).register(meterRegistry),
+                DistributionSummary.builder("repository.invocation.entities.loaded")
+                        .description("Entities hydrated per repository call")
+                        .tags(tags).register(meterRegistry),
+                Timer.builder("repository.invocation.flush")
+                        .description("Flush time per repository call")
+                        .tags(tags).register(meterRegistry));
+    }
+
+    //스트림은 소비하기 전이라 셀 수 없고, 숫자/boolean 은 행이 아니라서 기록하지 않는다
+    private long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private record Meters(Tags tags, DistributionSummary rows, DistributionSummary statements,
+                          DistributionSummary entitiesLoaded, Timer flush) {
+    }
+}
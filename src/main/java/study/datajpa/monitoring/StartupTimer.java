@@ -0,0 +1,53 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//JVM 이 뜬 뒤로 첫 요청(액추에이터 제외)의 응답이 끝날 때까지 걸린 시간. 지연 초기화를 쓰면 ready 시간만으로는 알 수 없다.
+//로그와 application.first.request.time 게이지로 남긴다. (시작/ready 시간은 스프링 부트의 application.started.time, application.ready.time)
+@Slf4j
+@Component
+public class StartupTimer extends OncePerRequestFilter {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    public StartupTimer(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return recorded.get() || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (recorded.compareAndSet(false, true)) {
+                long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+                log.info("time to first request: {} ms ({} {})", millis, request.getMethod(), request.getRequestURI());
+                meterRegistry.ifAvailable(registry -> TimeGauge.builder("application.first.request.time",
+                                () -> millis, TimeUnit.MILLISECONDS)
+                        .description("Time from JVM start until the first non-actuator request completed")
+                        .register(registry));
+            }
+        }
+    }
+}
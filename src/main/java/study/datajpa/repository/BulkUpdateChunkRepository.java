@@ -0,0 +1,15 @@
+package study.datajpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import study.datajpa.entity.BulkUpdateChunk;
+
+import java.util.List;
+
+public interface BulkUpdateChunkRepository extends JpaRepository<BulkUpdateChunk, Long> {
+
+    boolean existsByJobName(String jobName);
+
+    boolean existsByJobNameAndAgeThresholdNot(String jobName, int ageThreshold);
+
+    List<BulkUpdateChunk> findByJobNameAndCompletedFalseOrderByRangeStart(String jobName);
+}
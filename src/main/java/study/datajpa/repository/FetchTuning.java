@@ -0,0 +1,49 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+//전역 설정(default_batch_fetch_size)이나 @BatchSize 대신 이 블록 안에서만 지연 로딩 방식을 바꾼다.
+//세션(=트랜잭션) 단위 설정이라 트랜잭션 안에서만 쓸 수 있고, 끝나면 원래대로 돌려놓는다.
+@Component
+@RequiredArgsConstructor
+public class FetchTuning {
+
+    private final EntityManager em;
+
+    //프록시/컬렉션을 batchSize 개씩 in 쿼리로 초기화
+    public <T> T withBatchSize(int batchSize, Supplier<T> work) {
+        Session session = currentSession();
+        int previous = session.getFetchBatchSize();
+        session.setFetchBatchSize(batchSize);
+        try {
+            return work.get();
+        } finally {
+            session.setFetchBatchSize(previous);
+        }
+    }
+
+    //컬렉션을 처음 조회한 쿼리를 서브쿼리로 다시 써서 한 번에 초기화 (개수 제한 없음)
+    public <T> T withSubselect(Supplier<T> work) {
+        Session session = currentSession();
+        boolean previous = session.isSubselectFetchingEnabled();
+        session.setSubselectFetchingEnabled(true);
+        try {
+            return work.get();
+        } finally {
+            session.setSubselectFetchingEnabled(previous);
+        }
+    }
+
+    private Session currentSession() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("FetchTuning 은 트랜잭션 안에서만 쓸 수 있습니다.");
+        }
+        return em.unwrap(Session.class);
+    }
+}
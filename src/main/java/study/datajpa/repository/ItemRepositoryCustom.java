@@ -0,0 +1,13 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemRepositoryCustom {
+
+    //대량 저장용. 같은 id는 메모리에서 하나로 합치고, 새 id는 JDBC 배치 insert, 이미 있는 id는 MERGE(upsert)로 처리한다.
+    //돌려주는 Item 은 모두 준영속(detached)이고 등록/수정 시각이 채워져 있다. 호출한 쪽의 다른 엔티티는 flush 만 되고 그대로 남는다.
+    List<Item> saveAllBatched(Collection<Item> items);
+}
@@ -0,0 +1,93 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.config.CachedClock;
+import study.datajpa.entity.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    private static final int CHUNK_SIZE = 1000; //hibernate.jdbc.batch_size 의 배수
+
+    private static final String UPSERT_SQL =
+            "merge into item i" +
+            " using (select cast(? as varchar(255)) as id, cast(? as bigint) as modified_at) s on i.id = s.id" +
+            " when matched then update set last_modified_at = s.modified_at" +
+            " when not matched then insert (id, created_at, last_modified_at) values (s.id, s.modified_at, s.modified_at)";
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final CachedClock clock;
+
+    @Override
+    @Transactional
+    public List<Item> saveAllBatched(Collection<Item> items) {
+        //같은 id가 여러 번 들어오면 마지막 것만 남긴다
+        Map<String, Item> unique = new LinkedHashMap<>();
+        for (Item item : items) {
+            unique.put(item.getId(), item);
+        }
+        List<Item> deduped = new ArrayList<>(unique.values());
+
+        for (int from = 0; from < deduped.size(); from += CHUNK_SIZE) {
+            List<Item> chunk = deduped.subList(from, Math.min(from + CHUNK_SIZE, deduped.size()));
+            saveChunk(chunk);
+        }
+        return deduped;
+    }
+
+    private void saveChunk(List<Item> chunk) {
+        List<String> ids = chunk.stream().map(Item::getId).toList();
+        //이미 있는 id를 등록 시각과 같이 한 번에 골라낸다. persist 하다가 PK 충돌이 나면 트랜잭션 전체가 롤백되기 때문
+        Map<String, Long> existing = new HashMap<>();
+        for (Object[] row : em.createQuery("select i.id, i.createdAt from Item i where i.id in :ids", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList()) {
+            existing.put((String) row[0], (Long) row[1]);
+        }
+
+        List<Item> persisted = new ArrayList<>();
+        List<Item> collided = new ArrayList<>();
+        for (Item item : chunk) {
+            if (existing.containsKey(item.getId())) {
+                collided.add(item);
+            } else {
+                em.persist(item); //isNew 라서 merge 처럼 select 가 먼저 나가지 않는다
+                persisted.add(item);
+            }
+        }
+        em.flush();
+        //이 청크에서 persist 한 것만 떼어낸다. 호출한 쪽 영속성 컨텍스트의 다른 엔티티는 그대로 둔다
+        persisted.forEach(em::detach);
+
+        if (!collided.isEmpty()) {
+            upsert(collided, existing);
+        }
+    }
+
+    private void upsert(List<Item> collided, Map<String, Long> createdAt) {
+        List<Object[]> args = new ArrayList<>(collided.size());
+        long now = clock.millis();
+        for (Item item : collided) {
+            args.add(new Object[]{item.getId(), now});
+        }
+        //있으면 수정 시각만 바꾸고(created_at 은 updatable = false 와 같게 그대로), 그 사이 지워졌으면 insert
+        jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+
+        //돌려주는 인스턴스도 저장된 상태로 맞춘다. 안 그러면 isNew 가 true 라서 나중에 save 하면 persist 하다가 PK 충돌
+        //(그 사이 지워져서 insert 된 행은 실제 created_at 이 now 다)
+        for (Item item : collided) {
+            item.markStored(createdAt.get(item.getId()), now);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package study.datajpa.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+//페이징 할 때마다 나가는 count 쿼리 결과를 (쿼리, 파라미터) 단위로 TTL 동안 들고 있는 캐시
+//회원이 저장/수정/삭제되면 MemberCountCacheListener 가, 벌크 수정은 MemberCountCacheInvalidator 가 통째로 비운다.
+@Component
+public class MemberCountCache {
+
+    public static final String COUNT_ALL = "Member.countAll";
+    public static final String COUNT_BY_AGE = "Member.countByAge";
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final Map<Key, Entry> counts = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlNanos;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public MemberCountCache(@Value("${member.count-cache.ttl:30s}") Duration ttl, MeterRegistry meterRegistry) {
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("member.count.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("member.count.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("member.count.cache.hit.ratio", this, MemberCountCache::hitRatio).register(meterRegistry);
+        Gauge.builder("member.count.cache.size", counts, Map::size).register(meterRegistry);
+    }
+
+    public long get(String query, List<?> params, LongSupplier countQuery) {
+        //회원을 고친 트랜잭션은 자기 변경이 반영된 값을 봐야 하고, 커밋 전(롤백될 수도 있는) 값을 캐시에 넣으면 안 된다
+        if (writtenInCurrentTransaction()) {
+            return countQuery.getAsLong();
+        }
+
+        Key key = new Key(query, params);
+        long now = System.nanoTime();
+        Entry entry = counts.get(key);
+        if (entry != null && now - entry.loadedAt() < ttlNanos) {
+            hits.increment();
+            return entry.count();
+        }
+
+        misses.increment();
+        long startGeneration = generation.get();
+        long count = countQuery.getAsLong();
+        //카운트 도중에 무효화가 일어났으면 이미 낡은 값일 수 있으니 캐시에 넣지 않는다.
+        //(count 쿼리 전 자동 flush 로 이 트랜잭션의 변경이 나갔어도 리스너가 무효화해서 여기서 걸린다)
+        if (generation.get() == startGeneration && !writtenInCurrentTransaction()) {
+            if (counts.size() >= MAX_ENTRIES) {
+                counts.clear();
+            }
+            counts.put(key, new Entry(count, now));
+        }
+        return count;
+    }
+
+    //지금 비우고, 트랜잭션 안이면 커밋/롤백 뒤에 한 번 더 비운다.
+    //그 사이 다른 트랜잭션은 아직 커밋 안 된 변경 전 값을 다시 채울 수 있고, 이 트랜잭션은 캐시를 쓰지 않는다.
+    public void invalidate() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MemberCountCache.this);
+                    clear();
+                }
+            });
+        }
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        counts.clear();
+    }
+
+    private boolean writtenInCurrentTransaction() {
+        return TransactionSynchronizationManager.hasResource(this);
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private record Key(String query, List<?> params) {
+    }
+
+    private record Entry(long count, long loadedAt) {
+    }
+}
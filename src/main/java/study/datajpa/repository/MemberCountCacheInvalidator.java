@@ -0,0 +1,33 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.stereotype.Component;
+
+//회원 수가 바뀔 수 있는 메서드(save, delete, bulkAgePlus)가 끝나면 캐시해둔 count를 버린다.
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MemberCountCacheInvalidator {
+
+    private final MemberCountCache memberCountCache;
+
+    @Pointcut("execution(* study.datajpa.repository.MemberRepository+.save*(..))" +
+            " || execution(* study.datajpa.repository.MemberRepository+.delete*(..))" +
+            " || execution(* study.datajpa.repository.MemberRepository+.bulkAgePlus(..))")
+    private void memberRepositoryWrite() {
+    }
+
+    @Pointcut("execution(* study.datajpa.repository.MemberJpaRepository.save(..))" +
+            " || execution(* study.datajpa.repository.MemberJpaRepository.delete(..))" +
+            " || execution(* study.datajpa.repository.MemberJpaRepository.bulkAgePlus(..))")
+    private void memberJpaRepositoryWrite() {
+    }
+
+    @AfterReturning("memberRepositoryWrite() || memberJpaRepositoryWrite()")
+    public void invalidate() {
+        memberCountCache.invalidate();
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import study.datajpa.entity.Member;
+
+//save/delete 를 거치지 않는 더티 체킹 변경도 flush 될 때 MemberCountCache 를 비운다
+public class MemberCountCacheListener {
+
+    private final ObjectProvider<MemberCountCache> memberCountCache;
+
+    public MemberCountCacheListener(ObjectProvider<MemberCountCache> memberCountCache) {
+        this.memberCountCache = memberCountCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Member member) {
+        MemberCountCache cache = memberCountCache.getIfAvailable();
+        if (cache != null) {
+            cache.invalidate();
+        }
+    }
+}
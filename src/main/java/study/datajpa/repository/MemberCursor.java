@@ -0,0 +1,60 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import study.datajpa.entity.Member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Getter
+public class MemberCursor {
+
+    public enum Order {
+        ID, USERNAME
+    }
+
+    private final Order order;
+    private final Long id; //마지막으로 본 id (첫 페이지면 null)
+    private final String username; //USERNAME 정렬일 때 마지막으로 본 username
+
+    private MemberCursor(Order order, Long id, String username) {
+        this.order = order;
+        this.id = id;
+        this.username = username;
+    }
+
+    public static MemberCursor first(Order order) {
+        return new MemberCursor(order, null, null);
+    }
+
+    public static MemberCursor after(Member last, Order order) {
+        return new MemberCursor(order, last.getId(), order == Order.USERNAME ? last.getUsername() : null);
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    //클라이언트한테는 내부 구조를 숨긴 불투명 토큰으로 내보낸다.
+    public String encode() {
+        String raw = order == Order.USERNAME
+                ? order.name() + ":" + id + ":" + username
+                : order.name() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MemberCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3); //username 안에 ':'가 있어도 괜찮게 3개까지만 자른다
+            Order order = Order.valueOf(parts[0]);
+            Long id = Long.valueOf(parts[1]);
+            if (order == Order.USERNAME) {
+                return new MemberCursor(order, id, parts[2]);
+            }
+            return new MemberCursor(order, id, null);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서 토큰입니다: " + token, e);
+        }
+    }
+}
@@ -2,18 +2,24 @@ package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.MemberQueries;
 
 import java.util.List;
 import java.util.Optional;
 
+//JPQL 은 전부 Member 의 이름 있는 쿼리(MemberQueries)라서 시작할 때 한 번만 파싱된다. 결과는 모두 타입이 있는 TypedQuery 로 받는다.
 @Repository
+@RequiredArgsConstructor
 public class MemberJpaRepository {
 
     @PersistenceContext
     private EntityManager em;
 
+    private final MemberCountCache memberCountCache;
+
     public Member save(Member member) {
         em.persist(member);
         return member;
@@ -24,7 +30,7 @@ public class MemberJpaRepository {
     }
 
     public List<Member> findAll() {
-        return em.createQuery("select m from Member m", Member.class)
+        return em.createNamedQuery(MemberQueries.FIND_ALL, Member.class)
                 .getResultList();
     }
 
@@ -34,7 +40,7 @@ public class MemberJpaRepository {
     }
 
     public long count() {
-        return em.createQuery("select count(m) from Member m", Long.class)
+        return em.createNamedQuery(MemberQueries.COUNT, Long.class)
                 .getSingleResult();
     }
 
@@ -43,21 +49,20 @@ public class MemberJpaRepository {
     }
 
     public List<Member> findByUsernameAndAgeGreaterThen(String username, int age) {
-        return em.createQuery("select m from Member m where m.username = :username and m.age > :age")
+        return em.createNamedQuery(MemberQueries.FIND_BY_USERNAME_AND_AGE_GREATER_THAN, Member.class)
                 .setParameter("username", username)
                 .setParameter("age", age)
                 .getResultList();
-
     }
 
     public List<Member> findByUsername(String username) {
-        return em.createNamedQuery("Member.findByUsername", Member.class)
+        return em.createNamedQuery(MemberQueries.FIND_BY_USERNAME, Member.class)
                 .setParameter("username", username)
                 .getResultList();
     }
 
     public List<Member> findByPage(int age, int offset, int limit) {
-        return em.createQuery("select m from Member m where m.age = :age order by m.username desc")
+        return em.createNamedQuery(MemberQueries.FIND_BY_AGE_ORDER_BY_USERNAME_DESC, Member.class)
                 .setParameter("age", age)
                 .setFirstResult(offset)
                 .setMaxResults(limit)
@@ -65,16 +70,15 @@ public class MemberJpaRepository {
     }
 
     public long totalCount(int age) {
-        return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
-                .setParameter("age", age)
-                .getSingleResult();
+        return memberCountCache.get(MemberCountCache.COUNT_BY_AGE, List.of(age),
+                () -> em.createNamedQuery(MemberQueries.COUNT_BY_AGE, Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult());
 
     }
 
     public int bulkAgePlus(int age) {
-        return em.createQuery(
-                "update Member m set m.age = m.age + 1 " +
-                            "where m.age >= :age")
+        return em.createNamedQuery(MemberQueries.BULK_AGE_PLUS)
                 .setParameter("age", age)
                 .executeUpdate();
     }
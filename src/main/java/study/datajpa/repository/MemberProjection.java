@@ -1,5 +1,8 @@
 package study.datajpa.repository;
 
+import study.datajpa.projection.GenerateProjection;
+
+@GenerateProjection //MemberProjectionRow(id, username, teamName)
 public interface MemberProjection {
 
     Long getId();
@@ -1,18 +1,21 @@
 package study.datajpa.repository;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.LockTimeoutException;
 import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
+@Transactional(readOnly = true) //조회 메서드는 레플리카로 간다. 쓰기/락 메서드는 아래에서 따로 @Transactional
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
 
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
@@ -33,25 +36,34 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t ") //생성자로 매칭이 되게 일케하면 DTO로 반환
     List<MemberDto> findMemberDto();
 
-    @Query("select m from Member m where m.username in :names")
-    List<Member> findByNames(@Param("names") List<String> names);
+    //전체 내보내기용. 엔티티가 아니라 DTO로 바로 받아서 영속성 컨텍스트에 쌓이지 않고, fetchSize 만큼씩 끊어서 읽는다.
+    @QueryHints(value = @QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t")
+    Stream<MemberDto> streamMemberDto();
+
+    //List<Member> findByNames(Collection<String> names) 는 MemberRepositoryCustom 에 있다 (긴 목록은 나눠서 조회)
 
     List<Member> findListByUsername(String username); //컬렉션
     Member findMemberByUsername(String username); //단건
-    Optional<Member> findOptionalByUsername(String username); //Optional
+    //Optional<Member> findOptionalByUsername(String username) 은 MemberRepositoryCustom 에 있다 (username -> id 캐시)
 
+    //캐시 없는 기본형: 페이지마다 count 쿼리가 그대로 나간다 (RepositoryMetricsTest, 벤치마크 paging_page 의 기준).
+    //짧은 페이지 count 생략과 캐시된 total 은 MemberRepositoryCustom.findByAgeWithCachedCount
     Page<Member> findByAge(int age, Pageable page);
     Slice<Member> findSliceByAge(int age, Pageable page);
 
     List<Member> findListByAge(int age, Pageable page);
 
     //조인이 들어갈때 카운트 쿼리도 조인이 들어간다 그렇기 떄문에 spring data-jpa에서는 이런식으로 분리할 수 있다.
+    //캐시 없는 기본형이라 count 는 매번 나간다. 같은 count(전체 회원)를 캐시하는 쪽은 MemberRepositoryCustom.findAllWithCachedCount
     @Query(value = "select m from Member m left join m.team t",
             countQuery = "select count(m) from Member m")
     Page<Member> findSepQueryByAge(int age, Pageable pageable);
 
+    //큰 테이블에서는 락을 오래 잡는다. 청크로 나눠 돌리는 MemberBulkUpdateService.agePlus 를 쓴다
+    @Transactional
     @Modifying(clearAutomatically = true)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age ")
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age ") //벌크 수정도 버전을 올려야 다른 트랜잭션이 덮어쓰지 않는다
     int bulkAgePlus(@Param("age") int age);
 
 
@@ -73,17 +85,45 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     Member findReadOnlyByUsername(String username);
     //하이버네이트가 제공하는거. 구멍을 열어놓은거 // 난 조회만할거야 머 이런거에대한 힌트
 
+    //락을 기다리는 시간을 정한다. 시간이 지나면 LockTimeoutException -> CannotAcquireLockException (부른 쪽 트랜잭션은 롤백 표시하지 않는다)
+    //timeout 을 준 락이 실패하면 하이버네이트는 세션을 롤백 표시하지 않는 LockTimeoutException 을 던지고,
+    //리포지토리의 TransactionInterceptor 는 예외 변환보다 안쪽이라 변환 전 예외를 보고 noRollbackFor 가 걸린다 (MemberLockServiceTest.tryLock_contended)
+    //대기 시간/경합 지표는 MemberLockService 를 거쳐서 부르면 남는다
+    @Transactional(noRollbackFor = LockTimeoutException.class)
     @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
     List<Member> findLockByUsername(String username);
 
+    //NOWAIT: 누가 잡고 있으면 기다리지 않고 바로 실패
+    @Transactional(noRollbackFor = LockTimeoutException.class)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "0"))
+    @Query("select m from Member m where m.username = :username")
+    List<Member> findLockNoWaitByUsername(@Param("username") String username);
+
+    //SKIP LOCKED(-2, 하이버네이트 LockOptions.SKIP_LOCKED): 다른 트랜잭션이 잡은 행은 건너뛰고 남은 행만 잠근다.
+    //여러 워커가 서로 기다리지 않고 겹치지 않는 묶음을 가져갈 수 있다. (MemberLockService.claimAndProcess)
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select m from Member m where m.age >= :age order by m.id")
+    List<Member> findSkipLockedByAgeGreaterThanEqual(@Param("age") int age, Pageable pageable);
+
+    //인터페이스 프로젝션을 그냥 반환하면 행마다 프록시 + Map 을 만든다. 컴파일 때 만들어진 구현 클래스를 생성자 표현식으로 바로 채운다.
+    @Query("select new study.datajpa.repository.UsernameOnlyRow(m.username) from Member m where m.username = :username")
     List<UsernameOnly> findProjectionsByUsername(@Param("username") String username);
+
+    @Query("select new study.datajpa.repository.MemberProjectionRow(m.id, m.username, t.name)" +
+            " from Member m left join m.team t where m.username = :username")
+    List<MemberProjection> findMemberProjectionByUsername(@Param("username") String username);
     <T> List<T> findProjectionsDtoClassByUsername(@Param("username") String username, Class<T> type);
 
     @Query(value = "select * from member where username = ?", nativeQuery = true)
     Member findByNativeQuery(String username);
 
-    @Query(value = "select m.member_id as id, m.username, t.name as teamName" +
-            "from member m left join team t",
+    //결과 행마다 프록시를 만든다. 많이 읽을 때는 MemberRepositoryCustom.findMemberTeamRows 를 쓴다
+    @Query(value = "select m.member_id as id, m.username, t.name as teamName " +
+            "from member m left join team t on m.team_id = t.team_id",
             countQuery = "select count(*) from member",
             nativeQuery = true)
     Page<MemberProjection> findByNativeProjection(Pageable pageable);
@@ -1,9 +1,41 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberTeamRow;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MemberRepositoryCustom { //스프링 데이터 JPA가 아니라 직접 구현한 기능을 쓰고 싶은 것
     List<Member> findMemberCustom();
+
+    //offset 대신 마지막으로 본 키(id 또는 username+id) 다음부터 읽는 키셋 페이징. 몇 번째 페이지든 비용이 같다.
+    Slice<Member> findMemberKeyset(MemberCursor cursor, int size);
+
+    //첫 페이지가 덜 차면 count 쿼리를 생략하고, 필요하면 MemberCountCache 에 캐시된 total을 쓴다.
+    Page<Member> findAllWithCachedCount(Pageable pageable);
+    Page<Member> findByAgeWithCachedCount(int age, Pageable pageable);
+
+    //엔티티를 만들지 않고 id, username, 팀 이름만 생성자 표현식으로 바로 읽는다. (count 는 findAllWithCachedCount 와 같은 캐시)
+    Page<MemberDto> findMemberDto(Pageable pageable);
+
+    //findByNativeProjection 과 같은 네이티브 쿼리를 프록시 없이 record 로 바로 매핑한다. 정렬은 id, username 만 된다.
+    Page<MemberTeamRow> findMemberTeamRows(Pageable pageable);
+    Stream<MemberTeamRow> streamMemberTeamRows(); //트랜잭션 안에서 다 읽고 닫아야 한다
+
+    //MemberRepository 의 메서드 이름 쿼리 대신 이 구현이 쓰인다. MemberUsernameCache 에 id 가 있으면 em.find 로 찾는다.
+    Optional<Member> findOptionalByUsername(String username);
+
+    //username in (...) 으로 찾는다. 목록이 길면 나눠서 조회한다. 중복 이름은 한 번만 찾고, 결과 순서는 보장하지 않는다.
+    List<Member> findByNames(Collection<String> names);
+
+    //이미 읽어둔 회원들의 팀을 in 쿼리 한 번으로 영속성 컨텍스트에 올린다. 이후 member.getTeam() 은 쿼리를 안 날린다.
+    List<Team> preloadTeams(Collection<Long> memberIds);
 }
@@ -1,19 +1,269 @@
 package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberTeamRow;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    private static final String MEMBER_TEAM_ROW_SQL =
+            "select m.member_id as id, m.username, t.name as teamName " +
+            "from member m left join team t on m.team_id = t.team_id";
+    //네이티브 쿼리라 정렬 속성을 컬럼으로 직접 바꾼다. 목록에 없는 속성은 SQL 에 넣지 않는다.
+    private static final Map<String, String> MEMBER_TEAM_ROW_COLUMNS = Map.of(
+            "id", "m.member_id",
+            "username", "m.username");
+
+    private static final int CHUNK_SIZE = 1000; //in 절 하나에 넣는 이름 수 (패딩하면 1024)
+    private static final int ARRAY_THRESHOLD = 10_000;
+
     private final EntityManager em;
+    private final MemberCountCache memberCountCache;
+    private final MemberUsernameCache usernameCache;
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m")
                 .getResultList();
     }
+
+    @Override
+    public Slice<Member> findMemberKeyset(MemberCursor cursor, int size) {
+        TypedQuery<Member> query = cursor.getOrder() == MemberCursor.Order.USERNAME
+                ? usernameKeysetQuery(cursor)
+                : idKeysetQuery(cursor);
+
+        //다음 페이지가 있는지 보려고 하나 더 가져온다. 카운트 쿼리는 없다.
+        List<Member> result = query
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasNext = result.size() > size;
+        List<Member> content = hasNext ? result.subList(0, size) : result;
+        return new SliceImpl<>(content, PageRequest.ofSize(size), hasNext);
+    }
+
+    private TypedQuery<Member> idKeysetQuery(MemberCursor cursor) {
+        if (cursor.isFirst()) {
+            return em.createQuery("select m from Member m order by m.id asc", Member.class);
+        }
+        return em.createQuery("select m from Member m where m.id > :lastId order by m.id asc", Member.class)
+                .setParameter("lastId", cursor.getId());
+    }
+
+    //username이 같은 회원이 있을 수 있어서 id를 보조 키로 같이 쓴다. (username이 null인 회원은 커서 비교에서 빠진다)
+    private TypedQuery<Member> usernameKeysetQuery(MemberCursor cursor) {
+        if (cursor.isFirst()) {
+            return em.createQuery("select m from Member m order by m.username asc, m.id asc", Member.class);
+        }
+        return em.createQuery("select m from Member m " +
+                        "where m.username > :lastUsername " +
+                        "or (m.username = :lastUsername and m.id > :lastId) " +
+                        "order by m.username asc, m.id asc", Member.class)
+                .setParameter("lastUsername", cursor.getUsername())
+                .setParameter("lastId", cursor.getId());
+    }
+
+    //in_clause_parameter_padding 으로 in 절 SQL 은 크기별로 2의 거듭제곱 개만 생긴다.
+    //CHUNK_SIZE 까지는 한 번에, ARRAY_THRESHOLD 까지는 CHUNK_SIZE 씩 나눠서(같은 영속성 컨텍스트라 결과는 그대로 합친다),
+    //그보다 크면 파라미터 하나에 배열로 넘겨서 SQL 하나로 끝낸다. (H2/PostgreSQL 의 = any(?))
+    @Override
+    public List<Member> findByNames(Collection<String> names) {
+        List<String> distinct = names.stream().distinct().toList();
+        if (distinct.isEmpty()) {
+            return List.of();
+        }
+        if (distinct.size() > ARRAY_THRESHOLD) {
+            return findByNamesArray(distinct);
+        }
+
+        List<Member> result = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += CHUNK_SIZE) {
+            result.addAll(em.createQuery("select m from Member m where m.username in :names", Member.class)
+                    .setParameter("names", distinct.subList(from, Math.min(from + CHUNK_SIZE, distinct.size())))
+                    .getResultList());
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Member> findByNamesArray(List<String> names) {
+        return em.createNativeQuery("select * from member where username = any(:names)", Member.class)
+                .setParameter("names", names.toArray(String[]::new))
+                .getResultList();
+    }
+
+    //캐시에 id 가 있으면 em.find 라서 영속성 컨텍스트나 2차 캐시에 있는 회원은 쿼리 없이 나온다.
+    //없으면 쿼리로 찾고, 정확히 한 명일 때만 캐시에 넣는다. 두 명 이상이면 메서드 이름 쿼리와 똑같이 예외
+    @Override
+    public Optional<Member> findOptionalByUsername(String username) {
+        if (username == null || !usernameCache.isEnabled()) {
+            return findSingleByUsername(username);
+        }
+
+        Long cachedId = usernameCache.getId(username);
+        if (cachedId != null) {
+            Member member = em.find(Member.class, cachedId);
+            if (member != null && username.equals(member.getUsername())) {
+                return Optional.of(member);
+            }
+            usernameCache.evict(username); //삭제됐거나 이름이 바뀌었다
+        }
+
+        long generation = usernameCache.generation();
+        Optional<Member> found = findSingleByUsername(username);
+        found.ifPresent(member -> usernameCache.put(username, member.getId(), generation));
+        return found;
+    }
+
+    private Optional<Member> findSingleByUsername(String username) {
+        TypedQuery<Member> query = username == null
+                ? em.createQuery("select m from Member m where m.username is null", Member.class)
+                : em.createQuery("select m from Member m where m.username = :username", Member.class)
+                        .setParameter("username", username);
+        List<Member> result = query.setMaxResults(2).getResultList();
+        if (result.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1);
+        }
+        return result.stream().findFirst();
+    }
+
+    @Override
+    public Page<Member> findAllWithCachedCount(Pageable pageable) {
+        TypedQuery<Member> query = em.createQuery(
+                QueryUtils.applySorting("select m from Member m", pageable.getSort(), "m"), Member.class);
+        List<Member> content = paged(query, pageable).getResultList();
+
+        //PageableExecutionUtils 는 첫 페이지가 덜 찼거나 마지막 페이지면 count 를 아예 호출하지 않는다.
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> memberCountCache.get(MemberCountCache.COUNT_ALL, List.of(),
+                        () -> em.createQuery("select count(m) from Member m", Long.class)
+                                .getSingleResult()));
+    }
+
+    //스냅샷, team 프록시, 감사 필드 없이 필요한 컬럼 3개만 조인 한 번으로 읽는다. 팀이 없는 회원도 나오게 left join
+    @Override
+    public Page<MemberDto> findMemberDto(Pageable pageable) {
+        TypedQuery<MemberDto> query = em.createQuery(
+                QueryUtils.applySorting(
+                        "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+                        pageable.getSort(), "m"), MemberDto.class);
+        List<MemberDto> content = paged(query, pageable).getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> memberCountCache.get(MemberCountCache.COUNT_ALL, List.of(),
+                        () -> em.createQuery("select count(m) from Member m", Long.class)
+                                .getSingleResult()));
+    }
+
+    @Override
+    public Page<MemberTeamRow> findMemberTeamRows(Pageable pageable) {
+        NativeQuery<MemberTeamRow> query = memberTeamRowQuery(memberTeamRowOrderBy(pageable.getSort()));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<MemberTeamRow> content = query.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> memberCountCache.get(MemberCountCache.COUNT_ALL, List.of(),
+                        () -> em.createQuery("select count(m) from Member m", Long.class)
+                                .getSingleResult()));
+    }
+
+    @Override
+    public Stream<MemberTeamRow> streamMemberTeamRows() {
+        return memberTeamRowQuery(" order by m.member_id")
+                .setFetchSize(1000)
+                .getResultStream();
+    }
+
+    //팀 프록시는 id 를 알고 있어서, 팀만 올려두면 같은 키의 프록시는 영속성 컨텍스트에서 바로 초기화된다
+    @Override
+    public List<Team> preloadTeams(Collection<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return List.of();
+        }
+        return em.createQuery("select t from Team t where t.id in " +
+                        "(select m.team.id from Member m where m.id in :memberIds)", Team.class)
+                .setParameter("memberIds", memberIds)
+                .getResultList();
+    }
+
+    //컬럼 타입을 addScalar 로 정해두면 ResultSet 메타데이터로 타입을 추론하지 않고, 행은 람다로 바로 record 가 된다.
+    //동기화 대상 엔티티를 알려줘서 Member/Team 이 바뀌었을 때만 flush 한다.
+    private NativeQuery<MemberTeamRow> memberTeamRowQuery(String orderBy) {
+        NativeQuery<?> query = em.createNativeQuery(MEMBER_TEAM_ROW_SQL + orderBy).unwrap(NativeQuery.class);
+        return query
+                .addSynchronizedEntityClass(Member.class)
+                .addSynchronizedEntityClass(Team.class)
+                .addScalar("id", StandardBasicTypes.LONG)
+                .addScalar("username", StandardBasicTypes.STRING)
+                .addScalar("teamName", StandardBasicTypes.STRING)
+                .setTupleTransformer((tuple, aliases) ->
+                        new MemberTeamRow((Long) tuple[0], (String) tuple[1], (String) tuple[2]));
+    }
+
+    private String memberTeamRowOrderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return " order by m.member_id";
+        }
+        StringJoiner orderBy = new StringJoiner(", ", " order by ", "");
+        for (Sort.Order order : sort) {
+            String column = MEMBER_TEAM_ROW_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("정렬할 수 없는 속성입니다: " + order.getProperty());
+            }
+            orderBy.add(column + (order.isAscending() ? " asc" : " desc"));
+        }
+        return orderBy.toString();
+    }
+
+    @Override
+    public Page<Member> findByAgeWithCachedCount(int age, Pageable pageable) {
+        TypedQuery<Member> query = em.createQuery(
+                        QueryUtils.applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m"), Member.class)
+                .setParameter("age", age);
+        List<Member> content = paged(query, pageable).getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> memberCountCache.get(MemberCountCache.COUNT_BY_AGE, List.of(age),
+                        () -> em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                                .setParameter("age", age)
+                                .getSingleResult()));
+    }
+
+    private <T> TypedQuery<T> paged(TypedQuery<T> query, Pageable pageable) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query;
+    }
 }
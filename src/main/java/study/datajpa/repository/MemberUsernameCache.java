@@ -0,0 +1,116 @@
+package study.datajpa.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+//username -> 회원 id. findOptionalByUsername 이 쿼리 대신 em.find 로 1차/2차 캐시를 타게 한다.
+//username 은 유일하지 않아서 저장/수정/삭제 때 값을 넣지 않고 그 username 을 비운다. 다음 조회가 쿼리로 한 명인지 확인하고 다시 넣는다.
+//JPQL 벌크 삭제처럼 리스너를 안 거치는 변경은 조회 쪽에서 찾은 회원의 username 을 다시 확인해서 걸러낸다.
+@Component
+public class MemberUsernameCache {
+
+    private static final int MAX_PENDING = 1000;
+
+    private final boolean enabled;
+    private final Cache<String, Long> ids;
+    private final AtomicLong generation = new AtomicLong();
+
+    public MemberUsernameCache(@Value("${member.username-cache.enabled:true}") boolean enabled,
+                               @Value("${member.username-cache.max-size:10000}") long maxSize,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ids = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, ids, "member.username");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Long getId(String username) {
+        return enabled ? ids.getIfPresent(username) : null;
+    }
+
+    //조회를 시작할 때 받은 generation. 조회 도중에 evict 가 있었으면 put 하지 않는다 (MemberCountCache 와 같은 방식)
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String username, Long id, long startGeneration) {
+        if (enabled && generation.get() == startGeneration) {
+            ids.put(username, id);
+        }
+    }
+
+    //지금 비우고, 트랜잭션 안이면 커밋/롤백 뒤에 한 번 더 비운다. 커밋 전에 다른 트랜잭션이 옛 상태로 다시 채울 수 있어서.
+    //대량 적재에서 엔티티마다 동기화 객체를 걸지 않게 트랜잭션당 하나에 username 을 모으고, 너무 많으면 끝날 때 통째로 비운다.
+    public void evict(String username) {
+        if (!enabled || username == null) {
+            return;
+        }
+        evictNow(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingEvictions().add(username);
+        }
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        ids.invalidateAll();
+    }
+
+    private void evictNow(String username) {
+        generation.incrementAndGet();
+        ids.invalidate(username);
+    }
+
+    private PendingEvictions pendingEvictions() {
+        PendingEvictions pending = (PendingEvictions) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvictions();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private class PendingEvictions implements TransactionSynchronization {
+
+        private final Set<String> usernames = new HashSet<>();
+        private boolean all;
+
+        void add(String username) {
+            if (all) {
+                return;
+            }
+            usernames.add(username);
+            if (usernames.size() > MAX_PENDING) {
+                all = true;
+                usernames.clear();
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MemberUsernameCache.this);
+            if (all) {
+                clear();
+            } else {
+                usernames.forEach(MemberUsernameCache.this::evictNow);
+            }
+        }
+    }
+}
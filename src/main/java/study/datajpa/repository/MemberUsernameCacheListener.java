@@ -0,0 +1,28 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import study.datajpa.entity.Member;
+
+//Member 가 저장/수정/삭제되면 MemberUsernameCache 에서 그 username 을 비운다.
+//이름을 바꾼 경우 예전 username 항목은 조회 때 확인해서 걸러진다.
+public class MemberUsernameCacheListener {
+
+    private final ObjectProvider<MemberUsernameCache> usernameCache;
+
+    public MemberUsernameCacheListener(ObjectProvider<MemberUsernameCache> usernameCache) {
+        this.usernameCache = usernameCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(Member member) {
+        MemberUsernameCache cache = usernameCache.getIfAvailable();
+        if (cache != null) {
+            cache.evict(member.getUsername());
+        }
+    }
+}
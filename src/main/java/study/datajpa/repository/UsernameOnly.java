@@ -1,7 +1,9 @@
 package study.datajpa.repository;
 
 import org.springframework.beans.factory.annotation.Value;
+import study.datajpa.projection.GenerateProjection;
 
+@GenerateProjection //컴파일할 때 UsernameOnlyRow 가 만들어진다 (오픈 프로젝션은 안 된다)
 public interface UsernameOnly {
 //    @Value("#{target.username + ' ' + target.age}") //오픈프로젝션 : 엔티티를 다 갖고와서 처리하는 것..
     String getUsername();
@@ -0,0 +1,121 @@
+package study.datajpa.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.config.AuditingBatch;
+import study.datajpa.config.CachedClock;
+import study.datajpa.dto.BulkIngestResult;
+import study.datajpa.dto.MemberIngestRow;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberCountCache;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+//save() 를 한 건씩 부르는 대신 persist -> N건마다 flush/clear 해서 insert 를 JDBC 배치로 보낸다.
+//(hibernate.jdbc.batch_size, order_inserts, 시퀀스 pooled-lo 설정과 같이 써야 효과가 있다)
+//부르는 쪽 트랜잭션에 참여한다. 그 영속성 컨텍스트는 비우지 않고 (여기서 persist 한 회원만 떼어낸다) 쓰기 지연된 변경만 같이 flush 된다.
+@Slf4j
+@Service
+public class MemberBulkIngestService {
+
+    private final EntityManager em;
+    private final TeamRepository teamRepository;
+    private final MemberCountCache memberCountCache;
+    private final AuditorAware<String> auditorAware;
+    private final CachedClock clock;
+    private final int flushSize;
+
+    public MemberBulkIngestService(EntityManager em, TeamRepository teamRepository, MemberCountCache memberCountCache,
+                                   AuditorAware<String> auditorAware, CachedClock clock,
+                                   @Value("${member.ingest.flush-size:1000}") int flushSize) {
+        this.em = em;
+        this.teamRepository = teamRepository;
+        this.memberCountCache = memberCountCache;
+        this.auditorAware = auditorAware;
+        this.clock = clock;
+        this.flushSize = flushSize;
+    }
+
+    @Transactional
+    public BulkIngestResult ingest(List<MemberIngestRow> rows) {
+        long start = System.nanoTime();
+        Map<String, Long> teamIds = resolveTeamIds(rows);
+
+        //작성자는 한 번만 찾고, flush 단위(청크)마다 시각 하나로 감사 필드를 찍는다
+        String auditor = auditorAware.getCurrentAuditor().orElse(null);
+        AuditingBatch batch = AuditingBatch.open(clock, auditor);
+        long count = 0;
+        List<Member> chunk = new ArrayList<>(flushSize);
+        try {
+            for (MemberIngestRow row : rows) {
+                Member member = new Member(row.getUsername(), row.getAge());
+                if (row.getTeamName() != null) {
+                    //changeTeam() 은 team.members 에도 넣어서 대량 적재하면 팀 컬렉션이 계속 커진다. FK만 있으면 되니 참조만 건다.
+                    member.setTeam(em.getReference(Team.class, teamIds.get(row.getTeamName())));
+                }
+                em.persist(member);
+                chunk.add(member);
+
+                if (++count % flushSize == 0) {
+                    flushAndDetach(chunk); //영속성 컨텍스트가 커지지 않게 떼어낸다
+                    batch.close();
+                    batch = AuditingBatch.open(clock, auditor);
+                }
+            }
+            flushAndDetach(chunk);
+        } finally {
+            batch.close();
+        }
+        memberCountCache.invalidate(); //repository.save 를 거치지 않으니 직접 비운다
+
+        BulkIngestResult result = new BulkIngestResult(count, System.nanoTime() - start);
+        log.info("member bulk ingest: {} rows in {} ms ({} rows/sec)",
+                result.getRows(), result.getElapsedMillis(), String.format("%.0f", result.getRowsPerSecond()));
+        return result;
+    }
+
+    //em.clear() 는 부른 쪽이 들고 있던 엔티티까지 준영속으로 만든다
+    private void flushAndDetach(List<Member> chunk) {
+        em.flush();
+        chunk.forEach(em::detach);
+        chunk.clear();
+    }
+
+    //팀 이름 -> id. 이미 있는 팀은 한 번의 in 쿼리로 찾고 없는 팀만 새로 만든다.
+    private Map<String, Long> resolveTeamIds(List<MemberIngestRow> rows) {
+        Set<String> names = new LinkedHashSet<>();
+        for (MemberIngestRow row : rows) {
+            if (row.getTeamName() != null) {
+                names.add(row.getTeamName());
+            }
+        }
+
+        Map<String, Long> teamIds = new HashMap<>();
+        if (names.isEmpty()) {
+            return teamIds;
+        }
+        for (Team team : teamRepository.findByNameIn(names)) {
+            teamIds.putIfAbsent(team.getName(), team.getId());
+        }
+        for (String name : names) {
+            if (!teamIds.containsKey(name)) {
+                Team team = new Team(name);
+                em.persist(team);
+                teamIds.put(name, Objects.requireNonNull(team.getId()));
+            }
+        }
+        return teamIds;
+    }
+}
@@ -0,0 +1,196 @@
+package study.datajpa.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.config.TaskExecutorConfig;
+import study.datajpa.dto.BulkUpdateResult;
+import study.datajpa.entity.BulkUpdateChunk;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.BulkUpdateChunkRepository;
+import study.datajpa.repository.MemberCountCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+//bulkAgePlus 처럼 테이블 전체를 update 한 방으로 돌리면 락을 오래 잡고 undo 로그가 커진다.
+//PK 범위로 청크를 나눠서 청크마다 별도 트랜잭션으로 커밋하고, 워커 풀(TaskExecutorConfig.memberBulkUpdateExecutor)에서 병렬로 돌린다.
+//진행 상황은 BulkUpdateChunk 에 남아서 실패하면 같은 jobName 으로 이어서 돌릴 수 있다.
+//작업 중인 행을 호출하는 쪽 트랜잭션이 잡고 있으면 워커가 기다리게 되니 트랜잭션 밖에서 부르는 게 좋다.
+@Slf4j
+@Service
+public class MemberBulkUpdateService {
+
+    //네이티브 update 는 쿼리 스페이스를 안 주면 2차 캐시 전체를 비운다. 아무 엔티티와도 안 겹치는 스페이스를 줘서 막고, 바뀐 id만 직접 비운다.
+    private static final String NO_QUERY_SPACE = "member_bulk_update";
+
+    private final EntityManager em;
+    private final EntityManagerFactory emf;
+    private final BulkUpdateChunkRepository chunkRepository;
+    private final MemberCountCache memberCountCache;
+    private final TransactionTemplate requiresNew;
+    private final ThreadPoolTaskExecutor executor;
+    private final int chunkSize;
+
+    public MemberBulkUpdateService(EntityManager em, EntityManagerFactory emf,
+                                   BulkUpdateChunkRepository chunkRepository, MemberCountCache memberCountCache,
+                                   PlatformTransactionManager transactionManager,
+                                   @Qualifier(TaskExecutorConfig.MEMBER_BULK_UPDATE_EXECUTOR) ThreadPoolTaskExecutor executor,
+                                   @Value("${member.bulk-update.chunk-size:1000}") int chunkSize) {
+        this.em = em;
+        this.emf = emf;
+        this.chunkRepository = chunkRepository;
+        this.memberCountCache = memberCountCache;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    //age 이상인 회원의 나이를 1 올린다 (MemberRepository.bulkAgePlus 의 청크 버전)
+    //이어서 돌릴 때 처음 계획한 age 와 다르면 IllegalArgumentException
+    public BulkUpdateResult agePlus(String jobName, int age) {
+        long start = System.nanoTime();
+        List<Long> chunkIds = requiresNew.execute(status -> {
+            if (!chunkRepository.existsByJobName(jobName)) {
+                plan(jobName, age);
+            } else if (chunkRepository.existsByJobNameAndAgeThresholdNot(jobName, age)) {
+                //남은 청크만 다른 조건으로 돌면 작업 하나에 두 조건이 섞인다
+                throw new IllegalArgumentException("이미 다른 age 로 계획된 작업입니다: " + jobName);
+            }
+            return chunkRepository.findByJobNameAndCompletedFalseOrderByRangeStart(jobName).stream()
+                    .map(BulkUpdateChunk::getId)
+                    .toList();
+        });
+
+        CompletionService<ChunkResult> completion = new ExecutorCompletionService<>(executor);
+        List<Future<ChunkResult>> futures = new ArrayList<>(chunkIds.size());
+        try {
+            for (Long chunkId : chunkIds) {
+                futures.add(completion.submit(() -> runChunk(chunkId)));
+            }
+
+            long updatedRows = 0;
+            int failed = 0;
+            for (int i = 0; i < chunkIds.size(); i++) {
+                try {
+                    ChunkResult chunk = completion.take().get();
+                    updatedRows += chunk.updatedRows();
+                    detachFromCallerContext(chunk.ids());
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.warn("member bulk update chunk failed: job={}", jobName, e.getCause());
+                }
+            }
+
+            memberCountCache.invalidate();
+            BulkUpdateResult result = new BulkUpdateResult(jobName, chunkIds.size(), failed, updatedRows, System.nanoTime() - start);
+            log.info("member bulk update: {}", result);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("대량 수정이 중단됐습니다. 같은 jobName 으로 다시 실행하면 이어서 처리합니다: " + jobName, e);
+        } finally {
+            //풀은 다른 작업과 같이 쓰니 끄지 않고, 중단됐으면 이 작업의 남은 청크만 취소한다
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    //id 를 chunkSize 경계로 맞춰서 나눈다. 계획한 뒤에 추가된 회원(max 보다 큰 id)은 이 작업에 포함되지 않는다.
+    private void plan(String jobName, int age) {
+        Object[] range = em.createQuery("select min(m.id), max(m.id) from Member m", Object[].class)
+                .getSingleResult();
+        if (range[0] == null) {
+            return;
+        }
+        long min = (Long) range[0];
+        long max = (Long) range[1];
+
+        List<BulkUpdateChunk> chunks = new ArrayList<>();
+        for (long rangeStart = Math.floorDiv(min, chunkSize) * (long) chunkSize; rangeStart <= max; rangeStart += chunkSize) {
+            chunks.add(new BulkUpdateChunk(jobName, rangeStart, rangeStart + chunkSize, age));
+        }
+        chunkRepository.saveAll(chunks);
+    }
+
+    //청크 하나 = 트랜잭션 하나. 수정과 완료 표시를 같이 커밋해서 한 청크가 두 번 적용되지 않는다.
+    private ChunkResult runChunk(Long chunkId) {
+        ChunkResult result = requiresNew.execute(status -> {
+            //같은 작업을 동시에 두 번 돌려도 청크 행 락에서 줄을 서고, 늦게 온 쪽은 완료된 걸 보고 넘어간다
+            BulkUpdateChunk chunk = em.find(BulkUpdateChunk.class, chunkId, LockModeType.PESSIMISTIC_WRITE);
+            if (chunk.isCompleted()) {
+                return new ChunkResult(List.of(), 0);
+            }
+
+            List<Long> ids = em.createQuery(
+                            "select m.id from Member m" +
+                                    " where m.id >= :rangeStart and m.id < :rangeEnd and m.age >= :age", Long.class)
+                    .setParameter("rangeStart", chunk.getRangeStart())
+                    .setParameter("rangeEnd", chunk.getRangeEnd())
+                    .setParameter("age", chunk.getAgeThreshold())
+                    .getResultList();
+
+            int updated = 0;
+            if (!ids.isEmpty()) {
+                updated = em.createNativeQuery("update member set age = age + 1, version = version + 1 where member_id in (:ids) and age >= :age")
+                        .setParameter("ids", ids)
+                        .setParameter("age", chunk.getAgeThreshold())
+                        .unwrap(NativeQuery.class)
+                        .addSynchronizedQuerySpace(NO_QUERY_SPACE)
+                        .executeUpdate();
+            }
+            chunk.complete(updated);
+            //ids 는 select 할 때의 대상이고, updatedRows 는 그중 실제로 바뀐 행 수다 (그 사이 나이가 바뀐 행은 빠진다)
+            return new ChunkResult(ids, updated);
+        });
+
+        evictSecondLevelCache(result.ids());
+        return result;
+    }
+
+    //커밋 후에 바뀐 회원만 2차 캐시에서 뺀다. 쿼리 캐시는 어떤 결과에 들어있는지 알 수 없어서 통째로 비운다.
+    private void evictSecondLevelCache(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        for (Long id : ids) {
+            emf.getCache().evict(Member.class, id);
+        }
+        emf.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+    }
+
+    //clearAutomatically 처럼 영속성 컨텍스트 전체를 비우지 않고, 부른 쪽이 들고 있던 바뀐 회원만 detach 한다.
+    private void detachFromCallerContext(List<Long> ids) {
+        if (ids.isEmpty() || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Member.class);
+        for (Long id : ids) {
+            Object managed = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+            if (managed != null) {
+                em.detach(managed);
+            }
+        }
+    }
+
+    private record ChunkResult(List<Long> ids, int updatedRows) {
+    }
+}
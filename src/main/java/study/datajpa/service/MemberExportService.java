@@ -0,0 +1,55 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+
+    private static final int CLEAR_INTERVAL = 1000; //streamMemberDto 의 fetchSize 와 맞춤
+
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager em;
+
+    //회원 전체를 한 줄에 하나씩 JSON(NDJSON)으로 바로 써 내려간다. List로 모으지 않아서 회원 수와 상관없이 메모리가 일정하다.
+    @Transactional(readOnly = true) //스트림은 트랜잭션 안에서만 열려있다
+    public long exportNdjson(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(MemberDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        long count = 0;
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null); //값 사이 구분자는 아래에서 줄바꿈으로 직접 넣는다
+
+            Iterator<MemberDto> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+
+                if (++count % CLEAR_INTERVAL == 0) {
+                    generator.flush();
+                    //읽기 전용이라 flush 할 변경은 없고, 혹시 따라 올라온 엔티티가 있어도 여기서 비워준다
+                    em.clear();
+                }
+            }
+        }
+        return count;
+    }
+}
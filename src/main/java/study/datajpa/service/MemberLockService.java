@@ -0,0 +1,88 @@
+package study.datajpa.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberCountCache;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+//비관적 락 조회를 감싸서 락 대기 시간(member.lock.wait)과 경합으로 실패한 횟수(member.lock.contention)를 남긴다.
+//락은 트랜잭션이 끝날 때 풀리므로 잠그는 메서드는 부르는 쪽 트랜잭션 안에서만 쓸 수 있다.
+@Service
+public class MemberLockService {
+
+    private final MemberRepository memberRepository;
+    private final MemberCountCache memberCountCache;
+    private final MeterRegistry meterRegistry;
+
+    public MemberLockService(MemberRepository memberRepository, MemberCountCache memberCountCache, MeterRegistry meterRegistry) {
+        this.memberRepository = memberRepository;
+        this.memberCountCache = memberCountCache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    //최대 3초 기다린다. 넘으면 CannotAcquireLockException
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Member> lockByUsername(String username) {
+        return timed("wait", () -> memberRepository.findLockByUsername(username));
+    }
+
+    //기다리지 않는다. 누가 잡고 있으면 비어 있는 Optional
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<List<Member>> tryLockByUsername(String username) {
+        try {
+            return Optional.of(timed("nowait", () -> memberRepository.findLockNoWaitByUsername(username)));
+        } catch (PessimisticLockingFailureException e) {
+            return Optional.empty();
+        }
+    }
+
+    //age 이상인 회원을 최대 batchSize 명 잠가서 처리하고 커밋한다. 다른 워커가 잡은 행은 건너뛰므로 워커끼리 기다리지 않는다.
+    //processor 는 처리한 회원이 다시 조건에 걸리지 않게 바꿔야 한다 (안 그러면 다음 호출에서 또 가져간다). 처리한 수를 돌려준다.
+    @Transactional
+    public int claimAndProcess(int age, int batchSize, Consumer<List<Member>> processor) {
+        List<Member> claimed = timed("skip_locked",
+                () -> memberRepository.findSkipLockedByAgeGreaterThanEqual(age, PageRequest.ofSize(batchSize)));
+        if (!claimed.isEmpty()) {
+            processor.accept(claimed);
+            memberCountCache.invalidate(); //더티 체킹으로 바뀌니 save 를 거치지 않는다
+        }
+        meterRegistry.summary("member.lock.claimed").record(claimed.size());
+        return claimed.size();
+    }
+
+    private <T> T timed(String mode, Supplier<T> lock) {
+        long start = System.nanoTime();
+        String outcome = "acquired";
+        try {
+            return lock.get();
+        } catch (PessimisticLockingFailureException e) {
+            outcome = "timeout";
+            Counter.builder("member.lock.contention")
+                    .description("Lock attempts that failed because another transaction held the row")
+                    .tag("mode", mode)
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        } finally {
+            Timer.builder("member.lock.wait")
+                    .description("Time spent acquiring member row locks")
+                    .tags("mode", mode, "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
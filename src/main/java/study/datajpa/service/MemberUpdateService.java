@@ -0,0 +1,40 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberCountCache;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.NoSuchElementException;
+
+//한 회원을 여러 요청이 동시에 고치는 경우. 행을 잠그는(findLockByUsername) 대신 @Version 으로 충돌을 감지하고 다시 시도한다.
+@Service
+@RequiredArgsConstructor
+public class MemberUpdateService {
+
+    private final MemberRepository memberRepository;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final MemberCountCache memberCountCache;
+
+    public int addAge(Long memberId, int delta) {
+        return optimisticRetryExecutor.execute("addAge", () -> {
+            Member member = findMember(memberId);
+            member.setAge(member.getAge() + delta);
+            memberCountCache.invalidate(); //더티 체킹이라 save 를 거치지 않는다. 커밋/롤백 뒤에 한 번 더 비워진다
+            return member.getAge();
+        });
+    }
+
+    public void rename(Long memberId, String username) {
+        optimisticRetryExecutor.execute("rename", () -> {
+            findMember(memberId).setUsername(username);
+            return null;
+        });
+    }
+
+    private Member findMember(Long memberId) {
+        return memberRepository.findById(memberId)
+                .orElseThrow(() -> new NoSuchElementException("회원이 없습니다: " + memberId));
+    }
+}
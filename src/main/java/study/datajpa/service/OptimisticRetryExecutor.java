@@ -0,0 +1,76 @@
+package study.datajpa.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+//@Version 충돌(OptimisticLockingFailureException)이 나면 새 트랜잭션에서 처음부터 다시 한다.
+//충돌한 워커들이 같은 순간에 다시 부딪히지 않게 지수 백오프 + full jitter 로 쉬었다가 재시도한다.
+//매번 새로 읽어야 해서 시도마다 REQUIRES_NEW 트랜잭션을 연다. 바깥 트랜잭션 안에서 부르면 바깥 영속성 컨텍스트의 값은 갱신되지 않는다.
+@Slf4j
+@Component
+public class OptimisticRetryExecutor {
+
+    private final TransactionTemplate requiresNew;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                   @Value("${app.retry.optimistic.max-attempts:5}") int maxAttempts,
+                                   @Value("${app.retry.optimistic.initial-backoff:5ms}") Duration initialBackoff,
+                                   @Value("${app.retry.optimistic.max-backoff:200ms}") Duration maxBackoff) {
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return requiresNew.execute(status -> work.get()); //충돌은 보통 커밋(flush) 때 난다
+            } catch (OptimisticLockingFailureException e) {
+                counter("member.optimistic.conflicts", operation).increment();
+                if (attempt >= maxAttempts) {
+                    counter("member.optimistic.exhausted", operation).increment();
+                    log.warn("optimistic lock retries exhausted: operation={}, attempts={}", operation, attempt);
+                    throw e;
+                }
+                counter("member.optimistic.retries", operation).increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    //0 ~ min(max, initial * 2^(attempt-1)) 사이에서 무작위
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        long sleepNanos = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재시도 대기 중 인터럽트", e);
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
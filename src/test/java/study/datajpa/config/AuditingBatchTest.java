@@ -0,0 +1,28 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditingBatchTest {
+
+    //시스템 기본 시간대가 아니라 시계의 시간대로 시각과 밀리초가 같은 순간을 가리킨다
+    @Test
+    public void open_usesClockZone() {
+        ZoneId zone = ZoneId.of("Pacific/Kiritimati"); //UTC+14, 기본 시간대와 다르게
+        try (CachedClock clock = new CachedClock(zone, Duration.ofHours(1));
+             AuditingBatch batch = AuditingBatch.open(clock, "auditor")) {
+
+            assertThat(batch.getEpochMillis()).isEqualTo(clock.millis());
+            assertThat(batch.getTimestamp()).isEqualTo(LocalDateTime.ofInstant(Instant.ofEpochMilli(clock.millis()), zone));
+            assertThat(batch.getTimestamp()).isEqualTo(clock.localDateTime());
+            assertThat(AuditingBatch.current()).isSameAs(batch);
+        }
+        assertThat(AuditingBatch.current()).isNull();
+    }
+}
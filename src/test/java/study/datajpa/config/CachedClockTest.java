@@ -0,0 +1,47 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedClockTest {
+
+    @Test
+    public void withZone() throws Exception {
+        try (CachedClock clock = new CachedClock(ZoneOffset.UTC, Duration.ofMillis(1))) {
+            CachedClock zoned = (CachedClock) clock.withZone(ZoneId.of("Asia/Seoul"));
+
+            //멈춘 시계가 아니라 원래 시계와 같이 흘러간다
+            long before = zoned.millis();
+            Thread.sleep(50);
+            assertThat(zoned.millis()).isGreaterThan(before);
+        }
+    }
+
+    @Test
+    public void withZone_localDateTime() {
+        //갱신되지 않게 resolution 을 길게 잡는다
+        try (CachedClock clock = new CachedClock(ZoneOffset.UTC, Duration.ofHours(1))) {
+            ZoneId seoul = ZoneId.of("Asia/Seoul");
+            CachedClock zoned = (CachedClock) clock.withZone(seoul);
+
+            assertThat(zoned.getZone()).isEqualTo(seoul);
+            assertThat(zoned.instant()).isEqualTo(clock.instant());
+            assertThat(zoned.localDateTime()).isEqualTo(LocalDateTime.ofInstant(clock.instant(), seoul));
+        }
+    }
+
+    @Test
+    public void withZone_sameZone() {
+        try (CachedClock clock = new CachedClock(ZoneOffset.UTC, Duration.ofMillis(1))) {
+            Clock same = clock.withZone(ZoneOffset.UTC);
+            assertThat(same).isSameAs(clock);
+        }
+    }
+}
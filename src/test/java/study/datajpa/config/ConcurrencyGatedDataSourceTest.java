@@ -0,0 +1,121 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyGatedDataSourceTest {
+
+    @Test
+    public void limitsConcurrentConnections() throws Exception {
+        StubDataSource stub = new StubDataSource();
+        ConcurrencyGatedDataSource gate = new ConcurrencyGatedDataSource(stub, 3, Duration.ofSeconds(10));
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try (Connection ignored = gate.getConnection()) {
+                        Thread.sleep(5);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(stub.opened.get()).isEqualTo(50);
+        assertThat(stub.maxOpen.get()).isLessThanOrEqualTo(3);
+        assertThat(gate.availablePermits()).isEqualTo(3);
+    }
+
+    @Test
+    public void acquireTimeout() throws Exception {
+        ConcurrencyGatedDataSource gate = new ConcurrencyGatedDataSource(new StubDataSource(), 1, Duration.ofMillis(100));
+
+        try (Connection held = gate.getConnection()) {
+            long start = System.nanoTime();
+            assertThatThrownBy(gate::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        }
+    }
+
+    @Test
+    public void closeReleasesPermitOnce() throws Exception {
+        ConcurrencyGatedDataSource gate = new ConcurrencyGatedDataSource(new StubDataSource(), 2, Duration.ofMillis(100));
+
+        Connection connection = gate.getConnection();
+        assertThat(gate.availablePermits()).isEqualTo(1);
+
+        connection.close();
+        assertThat(gate.availablePermits()).isEqualTo(2);
+
+        //두 번 닫아도 permit 이 늘어나지 않는다
+        connection.close();
+        assertThat(gate.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    public void targetFailureReleasesPermit() {
+        StubDataSource stub = new StubDataSource();
+        stub.fail = true;
+        ConcurrencyGatedDataSource gate = new ConcurrencyGatedDataSource(stub, 1, Duration.ofMillis(100));
+
+        assertThatThrownBy(gate::getConnection).isInstanceOf(SQLException.class);
+        assertThat(gate.availablePermits()).isEqualTo(1);
+    }
+
+    //열린 커넥션 수만 세는 가짜 DataSource
+    static class StubDataSource extends AbstractDataSource {
+
+        final AtomicInteger opened = new AtomicInteger();
+        final AtomicInteger open = new AtomicInteger();
+        final AtomicInteger maxOpen = new AtomicInteger();
+        volatile boolean fail;
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (fail) {
+                throw new SQLException("stub");
+            }
+            opened.incrementAndGet();
+            maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName())) {
+                            open.decrementAndGet();
+                        }
+                        return null;
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
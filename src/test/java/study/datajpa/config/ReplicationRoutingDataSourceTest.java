@@ -0,0 +1,76 @@
+package study.datajpa.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//H2 두 개(인메모리)를 프라이머리/레플리카로 띄워서 어느 쪽 DB 로 갔는지 확인한다
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+class ReplicationRoutingDataSourceTest {
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    EntityManager sharedEntityManager;
+
+    @Test
+    public void readOnlyTransactionGoesToReplica() {
+        assertThat(databaseName(true)).isEqualToIgnoringCase("replica");
+    }
+
+    @Test
+    public void readWriteTransactionGoesToPrimary() {
+        assertThat(databaseName(false)).isEqualToIgnoringCase("primary");
+    }
+
+    //open-in-view 처럼 요청 하나 동안 EntityManager 하나를 묶어두고 읽기 -> 쓰기 -> 읽기 트랜잭션을 차례로 돌린다.
+    //트랜잭션이 끝날 때 커넥션을 돌려주지 않으면 처음 가져온 레플리카 커넥션으로 쓰기까지 간다.
+    @Test
+    public void transactionsSharingOneEntityManagerAreRoutedEach() {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(em));
+        try {
+            assertThat(entityManagerDatabaseName(true)).isEqualToIgnoringCase("replica");
+            assertThat(entityManagerDatabaseName(false)).isEqualToIgnoringCase("primary");
+            assertThat(entityManagerDatabaseName(true)).isEqualToIgnoringCase("replica");
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            em.close();
+        }
+    }
+
+    private String entityManagerDatabaseName(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> (String) sharedEntityManager.createNativeQuery("select database()")
+                .getSingleResult());
+    }
+
+    private String databaseName(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+    }
+}
@@ -78,5 +78,15 @@ class MemberTest {
 
     }
 
+    @Test
+    public void auditorResolvedOncePerTransaction() {
+        Member member1 = memberRepository.save(new Member("auditor1"));
+        Member member2 = memberRepository.save(new Member("auditor2"));
+
+        //작성자는 트랜잭션 안에서 한 번만 만들어진다
+        assertEquals(member1.getCreatedBy(), member2.getCreatedBy());
+        assertNotNull(member1.getCreatedBy());
+    }
+
 
 }
\ No newline at end of file
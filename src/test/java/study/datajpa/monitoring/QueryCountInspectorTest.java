@@ -0,0 +1,49 @@
+package study.datajpa.monitoring;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class QueryCountInspectorTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @AfterEach
+    void tearDown() {
+        QueryCountHolder.clear();
+    }
+
+    @Test
+    public void countRepeatedStatements() {
+        memberRepository.save(new Member("count1", 10));
+        memberRepository.save(new Member("count2", 20));
+        em.flush();
+        em.clear();
+
+        QueryCount count = QueryCountHolder.start();
+        memberRepository.findListByUsername("count1");
+        memberRepository.findListByUsername("count2");
+        memberRepository.findListByUsername("count3");
+        memberRepository.findUernameList();
+
+        //바인딩 값만 다른 같은 SQL 은 하나로 묶여서 반복 횟수로 잡힌다
+        assertThat(count.getTotal()).isEqualTo(4);
+        assertThat(count.getDistinct()).isEqualTo(2);
+        assertThat(count.getMaxRepeated()).isEqualTo(3);
+        assertThat(count.getMostRepeated()).contains("username");
+    }
+}
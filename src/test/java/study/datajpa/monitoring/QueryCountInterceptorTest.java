@@ -0,0 +1,34 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryCountInterceptorTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    QueryCountInterceptor interceptor =
+            new QueryCountInterceptor(new QueryCountInspector(new QueryBudgetProperties(), meterRegistry), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        QueryCountHolder.clear();
+    }
+
+    //비동기 응답은 첫 디스패치에서 afterCompletion 이 안 불리므로 스레드에 카운터가 남으면 안 된다
+    @Test
+    public void asyncRequestClearsHolder() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/members/export");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        assertThat(QueryCountHolder.current()).isNotNull();
+
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+        assertThat(QueryCountHolder.current()).isNull();
+    }
+}
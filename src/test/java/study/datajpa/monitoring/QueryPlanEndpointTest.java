@@ -0,0 +1,43 @@
+package study.datajpa.monitoring;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class QueryPlanEndpointTest {
+
+    private static final String QUERY = "select m from Member m where m.age = :age and m.username like 'queryPlan%'";
+
+    @Autowired
+    QueryPlanEndpoint queryPlanEndpoint;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void queryPlans() {
+        for (int age = 0; age < 3; age++) {
+            em.createQuery(QUERY, Member.class).setParameter("age", age).getResultList();
+        }
+
+        QueryPlanEndpoint.QueryPlans plans = queryPlanEndpoint.queryPlans(null);
+
+        //같은 문자열이라 처음 한 번만 파싱하고 나머지는 플랜 캐시에서 꺼낸다
+        assertThat(plans.statisticsEnabled()).isTrue();
+        assertThat(plans.queries()).filteredOn(plan -> plan.query().equals(QUERY))
+                .singleElement()
+                .satisfies(plan -> {
+                    assertThat(plan.executions()).isEqualTo(3);
+                    assertThat(plan.planCacheHits()).isGreaterThanOrEqualTo(2);
+                });
+        assertThat(queryPlanEndpoint.queryPlans(1).queries()).hasSizeLessThanOrEqualTo(1);
+    }
+}
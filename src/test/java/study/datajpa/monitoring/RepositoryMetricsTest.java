@@ -0,0 +1,64 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class RepositoryMetricsTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void recordPerMethod() {
+        for (int i = 0; i < 4; i++) {
+            memberRepository.save(new Member("metrics" + i, 77));
+        }
+        em.flush();
+        em.clear();
+
+        //같은 컨텍스트를 쓰는 다른 테스트도 findByAge 를 부르니 전후 차이로 본다
+        double timerBefore = timerCount();
+        double rowsBefore = total("repository.invocation.rows");
+        double loadedBefore = total("repository.invocation.entities.loaded");
+        double statementsBefore = total("repository.invocation.statements");
+
+        memberRepository.findByAge(77, PageRequest.of(0, 3));
+
+        assertThat(timerCount() - timerBefore).isEqualTo(1);
+        assertThat(total("repository.invocation.rows") - rowsBefore).isEqualTo(3);
+        assertThat(total("repository.invocation.entities.loaded") - loadedBefore).isEqualTo(3);
+        assertThat(total("repository.invocation.statements") - statementsBefore).isGreaterThanOrEqualTo(2); //select + count
+    }
+
+    private double timerCount() {
+        return meterRegistry.find("repository.invocations")
+                .tags("repository", "MemberRepository", "method", "findByAge", "outcome", "success")
+                .timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private double total(String name) {
+        return meterRegistry.find(name)
+                .tags("repository", "MemberRepository", "method", "findByAge")
+                .summaries().stream().mapToDouble(DistributionSummary::totalAmount).sum();
+    }
+}
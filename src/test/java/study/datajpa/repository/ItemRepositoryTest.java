@@ -1,10 +1,18 @@
 package study.datajpa.repository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Item;
+import study.datajpa.entity.Member;
 
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -13,10 +21,58 @@ class ItemRepositoryTest {
     @Autowired
     ItemRepository itemRepository;
 
+    @PersistenceContext
+    EntityManager em;
+
     @Test
     public void save() {
         Item item = new Item("A");
         itemRepository.save(item);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void save_stampsEpochMillis() {
+        long before = System.currentTimeMillis() - 1000; //CachedClock 은 resolution 만큼 늦을 수 있다
+        Item saved = itemRepository.save(new Item("epoch-" + UUID.randomUUID()));
+
+        assertThat(saved.isNew()).isFalse();
+        assertThat(saved.getCreatedAt()).isGreaterThanOrEqualTo(before);
+        assertThat(saved.getLastModifiedAt()).isEqualTo(saved.getCreatedAt());
+    }
+
+    @Test
+    public void saveAllBatched() {
+        long createdAt = itemRepository.save(new Item("batched-1")).getCreatedAt();
+
+        List<Item> items = List.of(
+                new Item("batched-1"), //이미 있음 -> merge
+                new Item("batched-2"),
+                new Item("batched-2"), //중복 -> 하나로 합침
+                new Item("batched-3"));
+
+        List<Item> saved = itemRepository.saveAllBatched(items);
+
+        assertThat(saved).extracting("id").containsExactly("batched-1", "batched-2", "batched-3");
+        assertThat(itemRepository.findAllById(List.of("batched-1", "batched-2", "batched-3"))).hasSize(3);
+        //이미 있던 id 는 등록 시각을 덮어쓰지 않는다
+        assertThat(itemRepository.findById("batched-1").get().getCreatedAt()).isEqualTo(createdAt);
+
+        //MERGE 로 간 것도 저장된 상태라 다시 save 하면 persist 가 아니라 merge
+        Item merged = saved.get(0);
+        assertThat(merged.isNew()).isFalse();
+        assertThat(merged.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(merged.getLastModifiedAt()).isGreaterThanOrEqualTo(createdAt);
+        itemRepository.save(merged);
+    }
+
+    @Test
+    @Transactional
+    public void saveAllBatched_keepsCallerPersistenceContext() {
+        Member member = new Member("itemBatchedCaller", 10);
+        em.persist(member);
+
+        itemRepository.saveAllBatched(List.of(new Item("batched-caller-1"), new Item("batched-caller-2")));
+
+        assertThat(em.contains(member)).isTrue();
+    }
+}
@@ -0,0 +1,87 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//캐시는 트랜잭션 사이에서 공유되니 테스트 트랜잭션 없이 커밋/롤백을 직접 한다
+@SpringBootTest
+class MemberCountCacheTest {
+
+    private static final int AGE = 134;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberCountCache memberCountCache;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    EntityManager em;
+
+    TransactionTemplate transaction;
+    Long otherId;
+
+    @BeforeEach
+    public void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            em.persist(new Member("countCache1", AGE));
+            em.persist(new Member("countCache2", AGE));
+            Member other = new Member("countCache3", AGE + 1);
+            em.persist(other);
+            otherId = other.getId();
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transaction.executeWithoutResult(status ->
+                em.createQuery("delete from Member m where m.username like 'countCache%'").executeUpdate());
+        memberCountCache.invalidate();
+    }
+
+    @Test
+    public void uncommittedChangeIsNotCached() {
+        assertThat(countByAge()).isEqualTo(2);
+
+        //더티 체킹으로 나이를 바꾸고 롤백. 트랜잭션 안에서는 바뀐 값을 보고, 그 값이 캐시에 남지 않는다
+        Long inside = transaction.execute(status -> {
+            em.find(Member.class, otherId).setAge(AGE);
+            long count = countByAge();
+            status.setRollbackOnly();
+            return count;
+        });
+
+        assertThat(inside).isEqualTo(3);
+        assertThat(countByAge()).isEqualTo(2);
+    }
+
+    @Test
+    public void committedDirtyCheckingInvalidates() {
+        assertThat(countByAge()).isEqualTo(2);
+        assertThat(countByAge()).isEqualTo(2); //캐시
+
+        transaction.executeWithoutResult(status -> em.find(Member.class, otherId).setAge(AGE));
+
+        assertThat(countByAge()).isEqualTo(3);
+    }
+
+    //첫 페이지가 덜 차면 count 를 생략하니 한 건짜리 페이지로 센다
+    private long countByAge() {
+        return memberRepository.findByAgeWithCachedCount(AGE, PageRequest.of(0, 1)).getTotalElements();
+    }
+}
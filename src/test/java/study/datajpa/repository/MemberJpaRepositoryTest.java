@@ -112,6 +112,18 @@ class MemberJpaRepositoryTest {
         assertThat(totalCount).isEqualTo(6);
     }
 
+    //MemberQueries 의 이름 있는 쿼리를 실제로 불러서 이름이나 JPQL 이 틀리면 여기서 깨진다
+    @Test
+    public void namedQueries() {
+        Member m1 = memberJpaRepository.save(new Member("namedQueryA", 131));
+        Member m2 = memberJpaRepository.save(new Member("namedQueryB", 131));
+        Member m3 = memberJpaRepository.save(new Member("namedQueryC", 131));
+
+        assertThat(memberJpaRepository.findAll()).contains(m1, m2, m3);
+        assertThat(memberJpaRepository.findByPage(131, 0, 2)).containsExactly(m3, m2); //username desc
+        assertThat(memberJpaRepository.findByPage(131, 2, 2)).containsExactly(m1);
+    }
+
     @Test
     public void bulkUpdate() {
         memberJpaRepository.save(new Member("member1", 10));
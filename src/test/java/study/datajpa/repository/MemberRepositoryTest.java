@@ -2,9 +2,13 @@ package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Slice;
@@ -12,13 +16,19 @@ import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberTeamRow;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.monitoring.QueryCount;
+import study.datajpa.monitoring.QueryCountHolder;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -32,6 +42,12 @@ class MemberRepositoryTest {
     @Autowired
     TeamRepository teamRepository;
 
+    @Autowired
+    FetchTuning fetchTuning;
+
+    @Autowired
+    MemberUsernameCache usernameCache;
+
     @PersistenceContext
     EntityManager entityManager;
 
@@ -176,6 +192,56 @@ class MemberRepositoryTest {
         Optional<Member> aaa2 = memberRepository.findOptionalByUsername("AAA"); //데이터가 있을지 없을지 모르면 걍 옵셔널을써!
     }
 
+    @Test
+    public void findOptionalByUsername_usernameCache() {
+        Member member = memberRepository.save(new Member("usernameCache1", 10));
+        Member duplicate1 = memberRepository.save(new Member("usernameCacheDup", 10));
+        memberRepository.save(new Member("usernameCacheDup", 20));
+        entityManager.flush();
+
+        assertThat(memberRepository.findOptionalByUsername("usernameCache1")).containsSame(member);
+        assertThat(usernameCache.getId("usernameCache1")).isEqualTo(member.getId());
+
+        //캐시에 있으면 쿼리 없이 영속성 컨텍스트에서 꺼낸다
+        QueryCount count = QueryCountHolder.start();
+        try {
+            assertThat(memberRepository.findOptionalByUsername("usernameCache1")).containsSame(member);
+            assertThat(count.getTotal()).isZero();
+        } finally {
+            QueryCountHolder.clear();
+        }
+
+        //이름이 바뀌면 예전 username 으로는 안 나온다
+        member.setUsername("usernameCache2");
+        entityManager.flush();
+        assertThat(memberRepository.findOptionalByUsername("usernameCache1")).isEmpty();
+        assertThat(memberRepository.findOptionalByUsername("usernameCache2")).containsSame(member);
+
+        //같은 username 이 둘이면 메서드 이름 쿼리처럼 예외
+        assertThrows(IncorrectResultSizeDataAccessException.class,
+                () -> memberRepository.findOptionalByUsername("usernameCacheDup"));
+        assertThat(usernameCache.getId(duplicate1.getUsername())).isNull();
+    }
+
+    @Test
+    public void findByNames_longList() {
+        memberRepository.save(new Member("inList1", 10));
+        memberRepository.save(new Member("inList2", 10));
+        memberRepository.save(new Member("inList3", 10));
+
+        //청크로 나뉘는 크기와 배열 하나로 넘기는 크기
+        for (int size : List.of(2_500, 12_000)) {
+            List<String> names = new ArrayList<>(List.of("inList1", "inList2", "inList3", "inList1"));
+            for (int i = 0; i < size; i++) {
+                names.add("inListMissing" + i);
+            }
+
+            List<Member> result = memberRepository.findByNames(names);
+
+            assertThat(result).extracting("username").containsExactlyInAnyOrder("inList1", "inList2", "inList3");
+        }
+    }
+
     @Test
     public void paging() {
         memberRepository.save(new Member("member1", 10));
@@ -249,6 +315,85 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    public void paging_cachedCount() {
+        memberRepository.save(new Member("member1", 33));
+        memberRepository.save(new Member("member2", 33));
+        memberRepository.save(new Member("member3", 33));
+        memberRepository.save(new Member("member4", 33));
+
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "username"));
+
+        Page<Member> page = memberRepository.findByAgeWithCachedCount(33, pageRequest);
+        Page<Member> cached = memberRepository.findByAgeWithCachedCount(33, pageRequest);
+
+        //회원을 저장한 트랜잭션은 캐시를 쓰지 않고 매번 센다 (트랜잭션 사이의 캐시는 MemberCountCacheTest)
+        memberRepository.save(new Member("member5", 33));
+        Page<Member> afterSave = memberRepository.findByAgeWithCachedCount(33, pageRequest);
+
+        assertThat(page.getContent().size()).isEqualTo(3);
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(cached.getTotalElements()).isEqualTo(4);
+        assertThat(afterSave.getTotalElements()).isEqualTo(5);
+        assertThat(afterSave.getContent()).extracting("username").containsExactly("member5", "member4", "member3");
+    }
+
+    @Test
+    public void paging_memberDto() {
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 10, teamA));
+        memberRepository.save(new Member("member3", 10, null));
+
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "id"));
+        Page<MemberDto> page = memberRepository.findMemberDto(pageRequest);
+
+        assertThat(page.getTotalElements()).isEqualTo(memberRepository.count());
+        //팀이 없는 회원도 left join 으로 나오고, 팀 이름이 채워진다
+        assertThat(page.getContent()).extracting("username").containsExactly("member3", "member2", "member1");
+        assertThat(page.getContent()).extracting("teamName").containsExactly(null, "teamA", "teamA");
+    }
+
+    @Test
+    public void paging_keyset() {
+        memberRepository.save(new Member("member1", 10));
+        memberRepository.save(new Member("member2", 10));
+        memberRepository.save(new Member("member3", 10));
+        memberRepository.save(new Member("member4", 10));
+        memberRepository.save(new Member("member5", 10));
+
+        Slice<Member> first = memberRepository.findMemberKeyset(MemberCursor.first(MemberCursor.Order.ID), 3);
+        List<Member> firstContent = first.getContent();
+        Member last = firstContent.get(firstContent.size() - 1);
+
+        //토큰으로 왕복해도 같은 위치에서 이어진다
+        MemberCursor cursor = MemberCursor.decode(MemberCursor.after(last, MemberCursor.Order.ID).encode());
+        Slice<Member> second = memberRepository.findMemberKeyset(cursor, 3);
+
+        assertThat(firstContent.size()).isEqualTo(3);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(firstContent).isSortedAccordingTo((a, b) -> a.getId().compareTo(b.getId()));
+        assertThat(second.getContent()).allMatch(m -> m.getId() > last.getId());
+    }
+
+    @Test
+    public void paging_keyset_username() {
+        memberRepository.save(new Member("keyset", 10));
+        memberRepository.save(new Member("keyset", 20));
+        memberRepository.save(new Member("keyset", 30));
+
+        Member firstSame = memberRepository.findByUsername("keyset").stream()
+                .min((a, b) -> a.getId().compareTo(b.getId()))
+                .get();
+
+        //username이 같아도 id로 이어서 읽기 때문에 건너뛰거나 중복되는 회원이 없다
+        Slice<Member> next = memberRepository.findMemberKeyset(MemberCursor.after(firstSame, MemberCursor.Order.USERNAME), 2);
+
+        assertThat(next.getContent()).extracting("username").containsOnly("keyset");
+        assertThat(next.getContent()).allMatch(m -> m.getId() > firstSame.getId());
+    }
+
     @Test
     public void bulkUpdate() {
         memberRepository.save(new Member("member1", 10));
@@ -305,6 +450,84 @@ class MemberRepositoryTest {
         }
     }
 
+    //findMemberLazy 와 같은 상황에서 팀 프록시를 하나씩이 아니라 in 쿼리 한 번으로 초기화한다 (@BatchSize, default_batch_fetch_size)
+    @Test
+    public void findMemberLazy_batchFetch() {
+        List<String> names = saveMembersWithOwnTeams("batch");
+
+        QueryCount count = QueryCountHolder.start();
+        try {
+            List<Member> members = memberRepository.findByNames(names); //select Member
+            for (Member member : members) {
+                System.out.println("member.getTeam().getName() = " + member.getTeam().getName()); //select Team ... where team_id in (?, ?, ?) 한 번
+            }
+            assertThat(count.getTotal()).isEqualTo(2);
+        } finally {
+            QueryCountHolder.clear();
+        }
+    }
+
+    @Test
+    public void findMemberLazy_preloadTeams() {
+        List<String> names = saveMembersWithOwnTeams("preload");
+        List<Member> members = memberRepository.findByNames(names);
+
+        QueryCount count = QueryCountHolder.start();
+        try {
+            memberRepository.preloadTeams(members.stream().map(Member::getId).toList());
+            for (Member member : members) {
+                System.out.println("member.getTeam().getName() = " + member.getTeam().getName()); //쿼리 안 나감
+            }
+            assertThat(count.getTotal()).isEqualTo(1);
+        } finally {
+            QueryCountHolder.clear();
+        }
+    }
+
+    @Test
+    public void teamMembers_batchAndSubselect() {
+        saveMembersWithOwnTeams("subselect");
+        List<String> teamNames = List.of("subselectTeam0", "subselectTeam1", "subselectTeam2");
+
+        QueryCount batch = QueryCountHolder.start();
+        try {
+            for (Team team : teamRepository.findByNameIn(teamNames)) {
+                System.out.println("team.getMembers().size() = " + team.getMembers().size()); //members 를 in 쿼리로 한 번에
+            }
+            assertThat(batch.getTotal()).isEqualTo(2);
+        } finally {
+            QueryCountHolder.clear();
+        }
+
+        entityManager.clear();
+        QueryCount subselect = QueryCountHolder.start();
+        try {
+            fetchTuning.withSubselect(() -> {
+                for (Team team : teamRepository.findByNameIn(teamNames)) {
+                    System.out.println("team.getMembers().size() = " + team.getMembers().size()); //where team_id in (select ...) 한 번
+                }
+                return null;
+            });
+            assertThat(subselect.getTotal()).isEqualTo(2);
+        } finally {
+            QueryCountHolder.clear();
+        }
+    }
+
+    //회원 3명, 각자 다른 팀. 저장 후 영속성 컨텍스트를 비워서 다음 조회가 프록시로 시작하게 한다
+    private List<String> saveMembersWithOwnTeams(String prefix) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Team team = new Team(prefix + "Team" + i);
+            teamRepository.save(team);
+            memberRepository.save(new Member(prefix + i, 10, team));
+            names.add(prefix + i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return names;
+    }
+
     @Test
     public void findMemberLazy_fetchJoin() {
 
@@ -399,6 +622,41 @@ class MemberRepositoryTest {
     }
 
 
+    @Test
+    public void secondLevelCache_team() {
+        Team team = teamRepository.save(new Team("cachedTeam"));
+        entityManager.flush();
+        entityManager.clear();
+
+        teamRepository.findById(team.getId()); //DB 에서 읽고 2차 캐시에 넣는다
+        entityManager.clear();
+        long hitsBefore = teamRegionStatistics().getHitCount();
+
+        Team cached = teamRepository.findById(team.getId()).get(); //영속성 컨텍스트는 비었지만 2차 캐시에서 꺼낸다
+
+        assertThat(cached.getName()).isEqualTo("cachedTeam");
+        assertThat(teamRegionStatistics().getHitCount()).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    public void secondLevelCache_bulkUpdateEvicts() {
+        Member member = memberRepository.save(new Member("cachedMember", 70));
+        entityManager.flush();
+        entityManager.clear();
+
+        memberRepository.findById(member.getId()); //2차 캐시에 age=70 으로 들어간다
+        memberRepository.bulkAgePlus(70); //JPQL 벌크 수정은 Member 영역을 비운다
+
+        Member reloaded = memberRepository.findById(member.getId()).get();
+        assertThat(reloaded.getAge()).isEqualTo(71);
+    }
+
+    private CacheRegionStatistics teamRegionStatistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics()
+                .getDomainDataRegionStatistics(Team.class.getName());
+    }
+
     @Test
     public void queryHintNotUse() {
         Member member1 = memberRepository.save(new Member("member1", 10));
@@ -460,6 +718,11 @@ class MemberRepositoryTest {
             System.out.println("usernameOnly = " + usernameOnly.getUsername());
         }
 
+        //프록시가 아니라 컴파일 때 만들어진 구현 클래스
+        assertThat(result).containsExactly(new UsernameOnlyRow("m1"));
+        assertThat(memberRepository.findMemberProjectionByUsername("m2"))
+                .extracting(MemberProjection::getUsername, MemberProjection::getTeamName)
+                .containsExactly(tuple("m2", "teamA"));
     }
 
     @Test
@@ -486,7 +749,37 @@ class MemberRepositoryTest {
             System.out.println("memberProjection.getTeamName() = " + memberProjection.getTeamName());
         }
 
+        assertThat(content).filteredOn(p -> "m1".equals(p.getUsername()))
+                .extracting(MemberProjection::getTeamName).containsExactly("teamA");
+    }
+
+    @Test
+    public void nativeQuery_record() {
+        Team teamA = new Team("teamA");
+        entityManager.persist(teamA);
+
+        entityManager.persist(new Member("m1", 0, teamA));
+        entityManager.persist(new Member("m2", 0, teamA));
+        entityManager.persist(new Member("m3", 0, null));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<MemberTeamRow> page = memberRepository.findMemberTeamRows(
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+        List<MemberTeamRow> streamed;
+        try (Stream<MemberTeamRow> stream = memberRepository.streamMemberTeamRows()) {
+            streamed = stream.filter(row -> row.username().startsWith("m")).toList();
+        }
 
+        assertThat(page.getContent()).containsExactly(
+                new MemberTeamRow(page.getContent().get(0).id(), "m3", null),
+                new MemberTeamRow(page.getContent().get(1).id(), "m2", "teamA"));
+        assertThat(page.getTotalElements()).isEqualTo(memberRepository.count());
+        assertThat(streamed).extracting(MemberTeamRow::teamName).contains("teamA", null);
+        //정렬 속성은 SQL 에 그대로 들어가지 않는다 (IllegalArgumentException 은 리포지토리 프록시에서 변환된다)
+        assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> memberRepository.findMemberTeamRows(PageRequest.of(0, 2, Sort.by("teamName; drop table member"))));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package study.datajpa.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.BulkIngestResult;
+import study.datajpa.dto.MemberIngestRow;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberBulkIngestServiceTest {
+
+    @Autowired
+    MemberBulkIngestService memberBulkIngestService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void ingest() {
+        List<MemberIngestRow> rows = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) { //flush-size(1000) 를 몇 번 넘기게
+            rows.add(new MemberIngestRow("ingest" + i, i % 50, i % 2 == 0 ? "ingestTeamA" : "ingestTeamB"));
+        }
+        rows.add(new MemberIngestRow("ingestNoTeam", 10, null));
+        Team callerTeam = new Team("ingestCallerTeam");
+        em.persist(callerTeam);
+
+        BulkIngestResult result = memberBulkIngestService.ingest(rows);
+
+        assertThat(result.getRows()).isEqualTo(2501);
+        //부른 쪽 영속성 컨텍스트는 비우지 않는다
+        assertThat(em.contains(callerTeam)).isTrue();
+
+        Long teamACount = em.createQuery("select count(m) from Member m where m.team.name = :name", Long.class)
+                .setParameter("name", "ingestTeamA")
+                .getSingleResult();
+        Member noTeam = memberRepository.findByUsername("ingestNoTeam").get(0);
+
+        assertThat(teamACount).isEqualTo(1250);
+        assertThat(teamRepository.findByNameIn(List.of("ingestTeamA", "ingestTeamB"))).hasSize(2);
+        assertThat(noTeam.getTeam()).isNull();
+
+        //flush-size(1000) 청크 안에서는 감사 시각/작성자가 하나로 찍힌다
+        List<Object[]> firstChunk = em.createQuery(
+                        "select distinct m.createdDate, m.createdBy from Member m where m.username in :names", Object[].class)
+                .setParameter("names", List.of("ingest0", "ingest1", "ingest999"))
+                .getResultList();
+        assertThat(firstChunk).hasSize(1);
+        assertThat(firstChunk.get(0)[1]).isNotNull();
+    }
+}
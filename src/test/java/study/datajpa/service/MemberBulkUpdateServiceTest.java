@@ -0,0 +1,137 @@
+package study.datajpa.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.config.TaskExecutorConfig;
+import study.datajpa.dto.BulkUpdateResult;
+import study.datajpa.entity.BulkUpdateChunk;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.BulkUpdateChunkRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+//청크마다 워커 스레드에서 따로 커밋하므로 테스트 트랜잭션으로 롤백할 수 없다. 직접 만들고 지운다.
+@SpringBootTest(properties = {"member.bulk-update.chunk-size=50", "member.bulk-update.workers=3"})
+class MemberBulkUpdateServiceTest {
+
+    @Autowired
+    MemberBulkUpdateService memberBulkUpdateService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    BulkUpdateChunkRepository chunkRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier(TaskExecutorConfig.MEMBER_BULK_UPDATE_EXECUTOR)
+    ThreadPoolTaskExecutor executor;
+
+    @PersistenceContext
+    EntityManager em;
+
+    List<Member> members;
+
+    @BeforeEach
+    public void setUp() {
+        List<Member> rows = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            rows.add(new Member("bulkUpdate" + i, i % 40));
+        }
+        members = memberRepository.saveAll(rows);
+        members.sort(Comparator.comparing(Member::getId));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'bulkUpdate%'").executeUpdate();
+            em.createQuery("delete from BulkUpdateChunk c where c.jobName like 'bulkUpdate%'").executeUpdate();
+        });
+    }
+
+    @Test
+    public void agePlus() {
+        Member target = members.stream().filter(m -> m.getAge() == 35).findFirst().get();
+        memberRepository.findById(target.getId()); //2차 캐시에 올려둔다
+
+        BulkUpdateResult result = memberBulkUpdateService.agePlus("bulkUpdate-agePlus", 30);
+        System.out.println("result = " + result);
+
+        assertThat(result.getFailedChunks()).isEqualTo(0);
+        assertThat(result.getChunks()).isGreaterThanOrEqualTo(300 / 50);
+        assertThat(result.getUpdatedRows()).isEqualTo(members.stream().filter(m -> m.getAge() >= 30).count());
+        for (Member before : members) {
+            int expected = before.getAge() >= 30 ? before.getAge() + 1 : before.getAge();
+            assertThat(memberRepository.findById(before.getId()).get().getAge()).isEqualTo(expected);
+        }
+        //바뀐 id 만 2차 캐시에서 빠졌으니 새 값을 읽는다
+        assertThat(memberRepository.findById(target.getId()).get().getAge()).isEqualTo(36);
+
+        //같은 작업을 다시 돌리면 이미 끝난 청크라 아무것도 안 한다
+        BulkUpdateResult again = memberBulkUpdateService.agePlus("bulkUpdate-agePlus", 30);
+        assertThat(again.getChunks()).isEqualTo(0);
+        assertThat(again.getUpdatedRows()).isEqualTo(0);
+        assertThat(memberRepository.findById(target.getId()).get().getAge()).isEqualTo(36);
+    }
+
+    @Test
+    public void workerPoolIsSizedByWorkers() {
+        assertThat(executor.getCorePoolSize()).isEqualTo(3);
+        assertThat(executor.getMaxPoolSize()).isEqualTo(3);
+    }
+
+    @Test
+    public void agePlus_resume() {
+        //첫 청크까지 처리하고 죽은 상황을 만든다
+        long minId = members.get(0).getId();
+        long maxId = members.get(members.size() - 1).getId();
+        long firstEnd = Math.floorDiv(minId, 50) * 50 + 50;
+        BulkUpdateChunk done = new BulkUpdateChunk("bulkUpdate-resume", Math.floorDiv(minId, 50) * 50, firstEnd, 0);
+        done.complete(0);
+        chunkRepository.saveAll(List.of(done, new BulkUpdateChunk("bulkUpdate-resume", firstEnd, maxId + 1, 0)));
+
+        BulkUpdateResult result = memberBulkUpdateService.agePlus("bulkUpdate-resume", 0);
+
+        assertThat(result.getChunks()).isEqualTo(1);
+        for (Member before : members) {
+            int expected = before.getId() < firstEnd ? before.getAge() : before.getAge() + 1;
+            assertThat(memberRepository.findById(before.getId()).get().getAge()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void agePlus_resumeWithDifferentAge() {
+        //age 30 으로 계획만 되고 하나도 처리되지 않은 작업
+        long minId = members.get(0).getId();
+        long maxId = members.get(members.size() - 1).getId();
+        chunkRepository.save(new BulkUpdateChunk("bulkUpdate-mismatch", Math.floorDiv(minId, 50) * 50, maxId + 1, 30));
+
+        assertThatThrownBy(() -> memberBulkUpdateService.agePlus("bulkUpdate-mismatch", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        //남은 청크가 다른 조건으로 돌지 않았다
+        for (Member before : members) {
+            assertThat(memberRepository.findById(before.getId()).get().getAge()).isEqualTo(before.getAge());
+        }
+        assertThat(chunkRepository.findByJobNameAndCompletedFalseOrderByRangeStart("bulkUpdate-mismatch")).hasSize(1);
+    }
+}
@@ -0,0 +1,54 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberExportServiceTest {
+
+    @Autowired
+    MemberExportService memberExportService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void exportNdjson() throws Exception {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("export1", 10, teamA));
+        em.persist(new Member("export2", 20, null));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = memberExportService.exportNdjson(out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertThat(lines.size()).isEqualTo(count);
+        assertThat(count).isEqualTo(memberRepository.count());
+        //한 줄이 하나의 JSON 객체
+        assertThat(lines).allSatisfy(line -> assertThat(objectMapper.readTree(line).has("username")).isTrue());
+        assertThat(lines).anyMatch(line -> line.contains("\"export1\"") && line.contains("\"teamA\""));
+    }
+}
@@ -0,0 +1,132 @@
+package study.datajpa.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+//락은 서로 다른 트랜잭션(스레드) 사이에서만 의미가 있어서 데이터를 커밋하고 직접 지운다.
+@SpringBootTest
+class MemberLockServiceTest {
+
+    @Autowired
+    MemberLockService memberLockService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @AfterEach
+    public void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                em.createQuery("delete from Member m where m.username like 'lock%'").executeUpdate());
+    }
+
+    @Test
+    public void claimAndProcess_disjointBatches() throws Exception {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            members.add(new Member("lockClaim" + i, 60));
+        }
+        memberRepository.saveAll(members);
+
+        //두 워커가 락을 잡은 채로 만나게 한다. SKIP LOCKED 가 아니면 두 번째 워커가 락에서 막혀서 barrier 가 깨진다
+        CyclicBarrier bothHoldLocks = new CyclicBarrier(2);
+        Set<Long> claimedIds = Collections.synchronizedSet(new HashSet<>());
+        List<CompletableFuture<Integer>> workers = new ArrayList<>();
+        for (int w = 0; w < 2; w++) {
+            workers.add(CompletableFuture.supplyAsync(() -> memberLockService.claimAndProcess(60, 5, batch -> {
+                for (Member member : batch) {
+                    assertThat(claimedIds.add(member.getId())).isTrue();
+                    member.setAge(0); //처리 완료 -> 다시 가져가지 않게
+                }
+                await(bothHoldLocks);
+            })));
+        }
+
+        int total = 0;
+        for (CompletableFuture<Integer> worker : workers) {
+            total += worker.get(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(total).isEqualTo(10);
+        assertThat(claimedIds).hasSize(10);
+        assertThat(memberLockService.claimAndProcess(60, 5, batch -> { })).isEqualTo(0);
+    }
+
+    @Test
+    public void tryLock_contended() throws Exception {
+        memberRepository.save(new Member("lockNoWait", 10));
+        Counter contention = meterRegistry.counter("member.lock.contention", "mode", "nowait");
+        double before = contention.count();
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    memberLockService.lockByUsername("lockNoWait");
+                    locked.countDown();
+                    awaitLatch(release);
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        //실패한 NOWAIT 뒤에도 같은 트랜잭션에서 쓰고 커밋할 수 있어야 한다. 롤백 표시가 됐으면 커밋에서 UnexpectedRollbackException
+        List<Optional<List<Member>>> result = new ArrayList<>();
+        assertThatCode(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            result.add(memberLockService.tryLockByUsername("lockNoWait"));
+            memberRepository.save(new Member("lockAfterNoWait", 10));
+        })).doesNotThrowAnyException();
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+
+        assertThat(result).containsExactly(Optional.empty());
+        assertThat(contention.count() - before).isEqualTo(1);
+        assertThat(memberRepository.findListByUsername("lockAfterNoWait")).hasSize(1);
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package study.datajpa.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ObjectOptimisticLockingFailureException;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//여러 스레드가 각자 커밋해야 충돌이 나서 테스트 트랜잭션 없이 돌리고 직접 지운다.
+@SpringBootTest(properties = "app.retry.optimistic.max-attempts=100")
+class MemberUpdateServiceTest {
+
+    @Autowired
+    MemberUpdateService memberUpdateService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    List<Member> saved = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        memberRepository.deleteAllInBatch(saved);
+    }
+
+    @Test
+    public void addAge_concurrent() throws Exception {
+        Member member = memberRepository.save(new Member("optimistic", 0));
+        saved.add(member);
+        double conflictsBefore = counter("member.optimistic.conflicts");
+        double retriesBefore = counter("member.optimistic.retries");
+        double exhaustedBefore = counter("member.optimistic.exhausted");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            results.add(executor.submit(() -> memberUpdateService.addAge(member.getId(), 1)));
+        }
+        for (Future<Integer> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        //덮어쓴 업데이트 없이 80번 모두 반영된다
+        Member updated = memberRepository.findById(member.getId()).get();
+        assertThat(updated.getAge()).isEqualTo(80);
+        assertThat(updated.getVersion()).isEqualTo(80);
+
+        //8개 스레드가 같은 행을 고치니 충돌이 나고, max-attempts=100 이라 충돌은 전부 재시도로 이어진다
+        double conflicts = counter("member.optimistic.conflicts") - conflictsBefore;
+        assertThat(conflicts).isGreaterThan(0);
+        assertThat(counter("member.optimistic.retries") - retriesBefore).isEqualTo(conflicts);
+        assertThat(counter("member.optimistic.exhausted") - exhaustedBefore).isZero();
+    }
+
+    @Test
+    public void addAge_invalidatesCountCache() {
+        Member member = memberRepository.save(new Member("optimisticCount", 141));
+        saved.add(member);
+        assertThat(memberJpaRepository.totalCount(141)).isEqualTo(1); //캐시에 들어간다
+
+        memberUpdateService.addAge(member.getId(), 1);
+
+        assertThat(memberJpaRepository.totalCount(141)).isZero();
+        assertThat(memberJpaRepository.totalCount(142)).isEqualTo(1);
+    }
+
+    @Test
+    public void staleUpdate_rejected() {
+        Member member = memberRepository.save(new Member("stale", 10));
+        saved.add(member);
+
+        Member first = memberRepository.findById(member.getId()).get();
+        Member second = memberRepository.findById(member.getId()).get();
+        first.setAge(20);
+        memberRepository.save(first);
+
+        //예전 버전으로 저장하면 덮어쓰지 않고 실패한다
+        second.setAge(30);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> memberRepository.save(second));
+        assertThat(memberRepository.findById(member.getId()).get().getAge()).isEqualTo(20);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name, "operation", "addAge").count();
+    }
+}